@@ -0,0 +1,87 @@
+package top.nintha.veladder;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import org.openjdk.jmh.annotations.*;
+import top.nintha.veladder.config.ServerOptions;
+import top.nintha.veladder.route.RouteCompiler;
+import top.nintha.veladder.route.RouteTable;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内端到端HTTP吞吐，部署与{@link AppLauncher#main}相同的多实例服务，
+ * 通过 -t 指定并发的客户端线程数
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpThroughputBenchmark {
+    @Param({"4"})
+    public int instances;
+
+    private Vertx vertx;
+    private HttpClient client;
+    private int port;
+
+    @Setup
+    public void setup() throws Exception {
+        vertx = Vertx.vertx();
+        // 监听端口0，多个实例共享系统分配的同一个端口
+        ServerOptions options = ServerOptions.fromSystemProperties().setPort(0).setInstances(instances);
+        RouteTable routes = RouteTable.scan("top.nintha.veladder.controller", new RouteCompiler());
+        List<AppLauncher> launchers = new CopyOnWriteArrayList<>();
+        join(vertx.deployVerticle(() -> {
+            AppLauncher launcher = new AppLauncher(options, routes);
+            launchers.add(launcher);
+            return launcher;
+        }, new DeploymentOptions().setInstances(instances)));
+        port = launchers.get(0).actualPort();
+        client = vertx.createHttpClient(new HttpClientOptions().setMaxPoolSize(64));
+    }
+
+    @TearDown
+    public void tearDown() {
+        join(vertx.close());
+    }
+
+    @Benchmark
+    public Buffer helloWorld() {
+        return get("/hello/world");
+    }
+
+    @Benchmark
+    public Buffer echoText() {
+        return get("/echo/text?text=veladder");
+    }
+
+    @Benchmark
+    public Buffer rxHelloWorld() {
+        return get("/rx/hello/world");
+    }
+
+    @Benchmark
+    public Buffer rxUsersStream() {
+        return get("/rx/users/stream?count=100");
+    }
+
+    private Buffer get(String uri) {
+        return join(client.request(HttpMethod.GET, port, "127.0.0.1", uri)
+                .compose(request -> request.send().compose(HttpClientResponse::body)));
+    }
+
+    private static <T> T join(Future<T> future) {
+        return future.toCompletionStage().toCompletableFuture().join();
+    }
+}
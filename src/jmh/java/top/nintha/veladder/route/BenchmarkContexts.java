@@ -0,0 +1,26 @@
+package top.nintha.veladder.route;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.RoutingContext;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * 不经过HTTP测量绑定和调用时使用的RoutingContext，只实现request().params()，其余方法返回null
+ */
+final class BenchmarkContexts {
+    private BenchmarkContexts() {
+    }
+
+    static RoutingContext withParams(MultiMap params) {
+        HttpServerRequest request = proxy(HttpServerRequest.class, "params", params);
+        return proxy(RoutingContext.class, "request", request);
+    }
+
+    private static <T> T proxy(Class<T> type, String methodName, Object result) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (p, method, args) -> method.getName().equals(methodName) && method.getParameterCount() == 0 ? result : null);
+        return type.cast(proxy);
+    }
+}
@@ -0,0 +1,55 @@
+package top.nintha.veladder.route;
+
+import io.vertx.core.MultiMap;
+import io.vertx.ext.web.RoutingContext;
+import org.openjdk.jmh.annotations.*;
+import top.nintha.veladder.controller.HelloController;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * controller方法调用，包含参数绑定，与直接调用对比
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvocationBenchmark {
+    @Param({"METHOD_HANDLE", "GENERATED"})
+    public DispatchMode dispatchMode;
+
+    private HelloController controller;
+    private RouteInvoker helloWorld;
+    private RouteInvoker echoText;
+    private RoutingContext ctx;
+
+    @Setup
+    public void setup() throws Exception {
+        controller = new HelloController();
+        for (CompiledRoute route : new RouteCompiler(dispatchMode).compile(controller)) {
+            if (route.getPath().equals("/hello/world")) {
+                helloWorld = route.getInvoker();
+            } else if (route.getPath().equals("/echo/text")) {
+                echoText = route.getInvoker();
+            }
+        }
+        ctx = BenchmarkContexts.withParams(MultiMap.caseInsensitiveMultiMap().add("text", "veladder"));
+    }
+
+    @Benchmark
+    public Object noArgs() throws Throwable {
+        return helloWorld.invoke(ctx);
+    }
+
+    @Benchmark
+    public Object stringArg() throws Throwable {
+        return echoText.invoke(ctx);
+    }
+
+    @Benchmark
+    public Object directCall() {
+        return controller.echoText(ctx.request().params().get("text"));
+    }
+}
@@ -0,0 +1,51 @@
+package top.nintha.veladder.route;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import org.openjdk.jmh.annotations.*;
+import top.nintha.veladder.entity.MockUser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 响应编码，{@link JsonResponseEncoder}与先生成String再编码的方式对比
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonEncodingBenchmark {
+    @Param({"1", "100"})
+    public int size;
+
+    private List<MockUser> users;
+    private JsonResponseEncoder encoder;
+
+    @Setup
+    public void setup() {
+        users = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            MockUser user = new MockUser();
+            user.setId((long) i);
+            user.setName("user" + i);
+            user.setTags(List.of("tag0", "tag1"));
+            users.add(user);
+        }
+        encoder = JsonResponseEncoder.forType(List.class);
+    }
+
+    @Benchmark
+    public Buffer encoder() throws IOException {
+        return encoder.encode(users);
+    }
+
+    @Benchmark
+    public Buffer encodeToString() {
+        return Buffer.buffer(Json.encode(users));
+    }
+}
@@ -0,0 +1,76 @@
+package top.nintha.veladder.route;
+
+import io.vertx.core.MultiMap;
+import org.openjdk.jmh.annotations.*;
+import top.nintha.veladder.entity.MockUser;
+
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 参数绑定，分别测量简单类型、数组、集合和实体对象
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParamBindingBenchmark {
+    private MultiMap params;
+    private ParamBinders.ValueBinder longBinder;
+    private ParamBinders.ValueBinder longArrayBinder;
+    private ParamBinders.ValueBinder longListBinder;
+    private ParamBinders.ValueBinder stringTreeSetBinder;
+    private BeanBinder beanBinder;
+
+    /**
+     * 提供泛型参数类型
+     */
+    @SuppressWarnings("unused")
+    private static class Holder {
+        List<Long> ids;
+        TreeSet<String> names;
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        params = MultiMap.caseInsensitiveMultiMap()
+                .add("id", "1234")
+                .add("name", "veladder")
+                .add("ids", "1").add("ids", "2").add("ids", "3")
+                .add("names", "b").add("names", "a")
+                .add("tags", "t0").add("tags", "t1");
+        longBinder = ParamBinders.valueBinder(Long.class, Long.class);
+        longArrayBinder = ParamBinders.valueBinder(long[].class, long[].class);
+        longListBinder = ParamBinders.valueBinder(List.class, Holder.class.getDeclaredField("ids").getGenericType());
+        stringTreeSetBinder = ParamBinders.valueBinder(TreeSet.class, Holder.class.getDeclaredField("names").getGenericType());
+        beanBinder = BeanBinder.of(MockUser.class);
+    }
+
+    @Benchmark
+    public Object simpleType() throws Throwable {
+        return longBinder.bind(params, "id");
+    }
+
+    @Benchmark
+    public Object primitiveArray() throws Throwable {
+        return longArrayBinder.bind(params, "ids");
+    }
+
+    @Benchmark
+    public Object list() throws Throwable {
+        return longListBinder.bind(params, "ids");
+    }
+
+    @Benchmark
+    public Object treeSet() throws Throwable {
+        return stringTreeSetBinder.bind(params, "names");
+    }
+
+    @Benchmark
+    public Object bean() throws Throwable {
+        return beanBinder.bind(params);
+    }
+}
@@ -0,0 +1,46 @@
+package top.nintha.veladder.route;
+
+import io.vertx.core.http.HttpMethod;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单独测量{@link RouteTrie}的查找耗时，应与路由数量无关
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteTrieBenchmark {
+    @Param({"100", "2000"})
+    public int routes;
+
+    private RouteTrie<Integer> trie;
+    private String staticPath;
+    private String paramPath;
+
+    @Setup
+    public void setup() {
+        trie = new RouteTrie<>();
+        for (int i = 0; i < routes; i++) {
+            trie.add("/api/v1/resource" + i + "/list", List.of(HttpMethod.GET), i);
+            trie.add("/api/v1/resource" + i + "/:id/items", List.of(HttpMethod.GET), i);
+        }
+        staticPath = "/api/v1/resource" + (routes - 1) + "/list";
+        paramPath = "/api/v1/resource" + (routes - 1) + "/42/items";
+    }
+
+    @Benchmark
+    public Integer staticSegments() {
+        return trie.find(HttpMethod.GET, staticPath).getValue();
+    }
+
+    @Benchmark
+    public Integer paramSegment() {
+        return trie.find(HttpMethod.GET, paramPath).getValue();
+    }
+}
@@ -0,0 +1,75 @@
+package top.nintha.veladder.route;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vert.x Router与{@link TrieRouter}的对比，注册大量带路径参数的路由，请求最后注册的路由，即Router逐个匹配时的最坏情况。
+ * 请求经过本机HTTP连接，结果包含网络开销，两种模式的差值即为路由匹配的耗时差异
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouterBenchmark {
+    @Param({"VERTX", "TRIE"})
+    public RouterMode mode;
+
+    @Param({"100", "2000"})
+    public int routes;
+
+    private Vertx vertx;
+    private HttpServer server;
+    private HttpClient client;
+    private String uri;
+
+    @Setup
+    public void setup() {
+        vertx = Vertx.vertx();
+        Router router = Router.router(vertx);
+        Handler<RoutingContext> handler = ctx -> ctx.response().end(ctx.pathParam("id"));
+        TrieRouter trieRouter = new TrieRouter();
+        for (int i = 0; i < routes; i++) {
+            String path = "/api/v1/resource" + i + "/:id/items";
+            if (mode == RouterMode.TRIE) {
+                trieRouter.add(path, List.of(HttpMethod.GET), null, handler);
+            } else {
+                router.get(path).handler(handler);
+            }
+        }
+        if (mode == RouterMode.TRIE) {
+            trieRouter.mount(router);
+        }
+        server = join(vertx.createHttpServer().requestHandler(router).listen(0));
+        client = vertx.createHttpClient();
+        uri = "/api/v1/resource" + (routes - 1) + "/42/items";
+    }
+
+    @TearDown
+    public void tearDown() {
+        join(vertx.close());
+    }
+
+    @Benchmark
+    public String lastRoute() {
+        return join(client.request(HttpMethod.GET, server.actualPort(), "127.0.0.1", uri)
+                .compose(request -> request.send().compose(HttpClientResponse::body)))
+                .toString();
+    }
+
+    static <T> T join(io.vertx.core.Future<T> future) {
+        return future.toCompletionStage().toCompletableFuture().join();
+    }
+}
@@ -0,0 +1,31 @@
+package top.nintha.veladder.utils;
+
+import org.openjdk.jmh.annotations.*;
+import top.nintha.veladder.annotations.RestController;
+import top.nintha.veladder.route.RouteIndex;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 扫描controller，classpath扫描与读取编译时生成的路由索引对比
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassScanBenchmark {
+
+    @Benchmark
+    public Set<Class<?>> scanPackage() {
+        return ClassScanUtil.scanByAnnotation("top.nintha.veladder", RestController.class);
+    }
+
+    @Benchmark
+    public RouteIndex loadIndex() throws IOException {
+        return RouteIndex.load(Thread.currentThread().getContextClassLoader());
+    }
+}
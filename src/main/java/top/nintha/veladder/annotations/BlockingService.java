@@ -2,8 +2,18 @@ package top.nintha.veladder.annotations;
 
 import java.lang.annotation.*;
 
+/**
+ * 标记阻塞的服务类或controller方法，调用会被派发到指定名称的worker池中执行。
+ * 标记在controller类上时，该类全部接口都视为阻塞
+ */
 @Documented
 @Retention(RetentionPolicy.RUNTIME)
-@Target({ElementType.TYPE})
+@Target({ElementType.TYPE, ElementType.METHOD})
 public @interface BlockingService {
+    String DEFAULT_POOL = "veladder-blocking";
+
+    /**
+     * worker池名称，池的大小、队列长度和拒绝策略通过配置指定
+     */
+    String value() default DEFAULT_POOL;
 }
@@ -0,0 +1,29 @@
+package top.nintha.veladder.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * 缓存接口编码后的响应内容，key为路由加上除RoutingContext外的全部参数值，参数类型需要正确实现equals/hashCode。
+ * 同一个key并发未命中时只调用一次controller方法。
+ * 支持返回普通对象、Single、Maybe、CompletionStage和Vert.x Future的接口，
+ * 不支持无返回值、Completable和Flowable，也不支持上传文件和流式请求体
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cacheable {
+    /**
+     * 写入后的过期时间(秒)
+     */
+    long ttlSeconds() default 60;
+
+    /**
+     * 最多缓存的条目数
+     */
+    long maxEntries() default 1000;
+
+    /**
+     * 缓存内容的总字节数上限
+     */
+    long maxBytes() default 16 * 1024 * 1024;
+}
@@ -11,4 +11,41 @@ public @interface RequestMapping {
     String value() default "";
 
     String[] method() default {};
+
+    /**
+     * 从表单请求体中绑定参数。未声明method的路由默认不读取请求体，只有声明了POST等可以携带请求体的method，
+     * 或设置为true时才缓存请求体
+     */
+    boolean form() default false;
+
+    /**
+     * 请求体大小上限(字节)，小于0时使用框架默认值
+     */
+    long bodyLimit() default -1;
+
+    /**
+     * 返回Flowable时的输出格式
+     */
+    StreamFormat stream() default StreamFormat.JSON_ARRAY;
+
+    /**
+     * 根据编码后的响应内容计算ETag，GET/HEAD请求的If-None-Match匹配时返回304，不支持Flowable
+     */
+    boolean etag() default false;
+
+    /**
+     * 响应的Cache-Control，为空时不设置
+     */
+    String cacheControl() default "";
+
+    /**
+     * 同时处理的请求上限，超过时直接返回503，小于等于0时不限制
+     */
+    int maxConcurrency() default 0;
+
+    /**
+     * 返回Single、Maybe、Completable、CompletionStage或Vert.x Future时等待结果的超时时间(毫秒)，
+     * 超时返回504并取消上游(Vert.x Future不能取消，只忽略其结果)，小于等于0时不限制
+     */
+    long timeoutMillis() default 0;
 }
@@ -0,0 +1,19 @@
+package top.nintha.veladder.annotations;
+
+/**
+ * 返回{@code Flowable}时响应体的输出格式
+ */
+public enum StreamFormat {
+    /**
+     * 分块输出的JSON数组 application/json
+     */
+    JSON_ARRAY,
+    /**
+     * 每行一个JSON application/x-ndjson
+     */
+    NDJSON,
+    /**
+     * Server-Sent Events text/event-stream
+     */
+    SSE
+}
@@ -0,0 +1,293 @@
+package top.nintha.veladder.batch;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+import lombok.extern.slf4j.Slf4j;
+import top.nintha.veladder.http.CompressionHandler;
+import top.nintha.veladder.route.BodyMode;
+import top.nintha.veladder.route.CompiledRoute;
+import top.nintha.veladder.route.ResultType;
+import top.nintha.veladder.route.RouteHandler;
+import top.nintha.veladder.route.RouteTable;
+import top.nintha.veladder.route.RouteTrie;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 批量请求接口，请求体为子请求数组，每个子请求包含 method、path、params、body：
+ * <pre>
+ * [{"method": "GET", "path": "/echo/object", "params": {"text": "a", "code": 1}},
+ *  {"method": "POST", "path": "/post/body", "body": {"name": "b"}}]
+ * </pre>
+ * 子请求直接在进程内交给已编译的路由处理，不经过网络和Vert.x Router，全部子请求同时发起，
+ * 按顺序返回 {"status": 200, "durationMicros": 12, "headers": {...}, "body": ...}，失败时以error代替body。
+ * 子请求的响应写入{@link SubResponse}，status和headers为controller设置的状态码和响应头（没有时省略headers），
+ * body总是路由的返回值；controller调用fail时按失败处理，调用reroute时在批量接口内重新分发。
+ * 开启路由指标时子请求计入所属路由的{@link top.nintha.veladder.metrics.RouteMetrics}，
+ * 批量接口本身不单独统计。
+ * 不支持返回Flowable、上传文件和流式请求体的路由
+ */
+@Slf4j
+public class BatchHandler implements Handler<RoutingContext> {
+    /**
+     * 单个子请求最多reroute的次数，避免路由之间循环reroute
+     */
+    private static final int MAX_REROUTES = 8;
+
+    private final RouteTrie<RouteHandler> trie = new RouteTrie<>();
+    private final BatchOptions options;
+
+    public BatchHandler(RouteTable routes, BatchOptions options) {
+        this.options = options;
+        for (CompiledRoute route : routes.getRoutes()) {
+            List<HttpMethod> methods = route.getHttpMethods().stream().map(HttpMethod::valueOf).collect(Collectors.toList());
+            trie.add(route.getPath(), methods, new RouteHandler(route));
+        }
+    }
+
+    @Override
+    public void handle(RoutingContext ctx) {
+        JsonArray items;
+        try {
+            items = ctx.getBodyAsJsonArray();
+        } catch (DecodeException | ClassCastException e) {
+            items = null;
+        }
+        if (items == null) {
+            fail(ctx, 400, "request body must be a JSON array");
+            return;
+        }
+        if (items.size() > options.getMaxSize()) {
+            fail(ctx, 413, "batch size exceeds " + options.getMaxSize());
+            return;
+        }
+        List<CompletableFuture<ItemResult>> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            results.add(dispatch(ctx, items.getValue(i)));
+        }
+        Context context = ctx.vertx().getOrCreateContext();
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).whenComplete((v, err) -> {
+            // 子请求可能在worker线程上完成
+            if (Vertx.currentContext() == context) {
+                reply(ctx, results);
+            } else {
+                context.runOnContext(x -> reply(ctx, results));
+            }
+        });
+    }
+
+    private CompletableFuture<ItemResult> dispatch(RoutingContext ctx, Object value) {
+        long start = System.nanoTime();
+        if (!(value instanceof JsonObject)) {
+            return CompletableFuture.completedFuture(ItemResult.error(400, "item must be a JSON object", start));
+        }
+        JsonObject item = (JsonObject) value;
+        String uri = item.getString("path");
+        HttpMethod method;
+        try {
+            method = HttpMethod.valueOf(item.getString("method", "GET").toUpperCase());
+        } catch (IllegalArgumentException | ClassCastException e) {
+            return CompletableFuture.completedFuture(ItemResult.error(400, "invalid method", start));
+        }
+        if (uri == null) {
+            return CompletableFuture.completedFuture(ItemResult.error(400, "path is required", start));
+        }
+        MultiMap itemParams = MultiMap.caseInsensitiveMultiMap();
+        JsonObject paramsJson = item.getJsonObject("params");
+        if (paramsJson != null) {
+            for (Map.Entry<String, Object> param : paramsJson) {
+                if (param.getValue() instanceof JsonArray) {
+                    for (Object v : (JsonArray) param.getValue()) {
+                        itemParams.add(param.getKey(), String.valueOf(v));
+                    }
+                } else if (param.getValue() != null) {
+                    itemParams.add(param.getKey(), String.valueOf(param.getValue()));
+                }
+            }
+        }
+        Object body = item.getValue("body");
+        String bodyText = body == null ? null : body instanceof String ? (String) body : Json.encode(body);
+        return route(ctx, method, uri, itemParams, bodyText, start, 0);
+    }
+
+    /**
+     * @param reroutes 已经reroute的次数
+     */
+    private CompletableFuture<ItemResult> route(RoutingContext ctx, HttpMethod method, String uri, MultiMap itemParams,
+                                                String bodyText, long start, int reroutes) {
+        QueryStringDecoder decoder = new QueryStringDecoder(uri.startsWith("/") ? uri : "/" + uri);
+        String path = decoder.rawPath();
+        RouteTrie.Match<RouteHandler> match = trie.find(method, path);
+        if (match == null) {
+            return CompletableFuture.completedFuture(ItemResult.error(404, "not found", start));
+        }
+        if (match.getValue() == null) {
+            return CompletableFuture.completedFuture(ItemResult.error(405, "method not allowed", start));
+        }
+        RouteHandler handler = match.getValue();
+        if (!isBatchable(handler.getRoute())) {
+            return CompletableFuture.completedFuture(ItemResult.error(400, "route does not support batch", start));
+        }
+
+        MultiMap params = MultiMap.caseInsensitiveMultiMap();
+        decoder.parameters().forEach(params::add);
+        params.addAll(itemParams);
+        Map<String, String> pathParams = new HashMap<>();
+        for (int i = 0; i < match.getParamCount(); i++) {
+            String name = match.getParamName(i);
+            String paramValue = match.getDecodedParamValue(i);
+            // 与Vert.x Router一致，路径参数不覆盖同名的请求参数
+            if (!params.contains(name)) {
+                params.add(name, paramValue);
+            }
+            pathParams.put(name, paramValue);
+        }
+
+        SubRequestContext sub = new SubRequestContext(ctx, method, path, params, pathParams, bodyText);
+        return handler.dispatch(sub).handle((buffer, err) -> {
+            sub.response().finish();
+            if (sub.getReroutePath() != null && !sub.failed()) {
+                if (reroutes >= MAX_REROUTES) {
+                    return CompletableFuture.completedFuture(ItemResult.error(500, "too many reroutes", start));
+                }
+                return route(ctx, sub.getRerouteMethod(), sub.getReroutePath(), itemParams, sub.getBodyAsString(), start, reroutes + 1);
+            }
+            return CompletableFuture.completedFuture(result(sub, buffer, err, start));
+        }).thenCompose(Function.identity());
+    }
+
+    private static ItemResult result(SubRequestContext sub, Buffer buffer, Throwable err, long start) {
+        HttpServerRequest request = sub.request();
+        if (sub.failed()) {
+            int status = sub.statusCode() == -1 ? 500 : sub.statusCode();
+            if (sub.failure() != null) {
+                log.error("batch item failed, {} {}", request.method(), request.path(), sub.failure());
+            }
+            return ItemResult.error(status, HttpResponseStatus.valueOf(status).reasonPhrase().toLowerCase(), start);
+        }
+        if (err == null) {
+            SubResponse response = sub.response();
+            return ItemResult.ok(response.getStatusCode(), response.resultHeaders(), buffer, start);
+        }
+        Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+        if (cause instanceof RejectedExecutionException) {
+            return ItemResult.error(503, "service unavailable", start);
+        }
+        if (cause instanceof TimeoutException) {
+            return ItemResult.error(504, "gateway timeout", start);
+        }
+        log.error("batch item error, {} {}", request.method(), request.path(), cause);
+        return ItemResult.error(500, "system error", start);
+    }
+
+    /**
+     * 没有响应内容但接收RoutingContext的路由通常自行写出响应，也不支持
+     */
+    private static boolean isBatchable(CompiledRoute route) {
+        Method method = route.getMethod();
+        return route.getResultType() != ResultType.FLOWABLE
+                && route.getBodyMode() != BodyMode.STREAM
+                && route.getBodyMode() != BodyMode.UPLOAD
+                && !(route.isVoid() && Arrays.asList(method.getParameterTypes()).contains(RoutingContext.class));
+    }
+
+    private static void reply(RoutingContext ctx, List<CompletableFuture<ItemResult>> results) {
+        Buffer out = Buffer.buffer(256);
+        out.appendByte((byte) '[');
+        for (int i = 0; i < results.size(); i++) {
+            ItemResult result = results.get(i).join();
+            if (i > 0) {
+                out.appendByte((byte) ',');
+            }
+            out.appendString("{\"status\":").appendString(Integer.toString(result.status))
+                    .appendString(",\"durationMicros\":").appendString(Long.toString(result.durationMicros));
+            if (result.headers != null && !result.headers.isEmpty()) {
+                out.appendString(",\"headers\":").appendString(encodeHeaders(result.headers));
+            }
+            if (result.body != null) {
+                out.appendString(",\"body\":").appendBuffer(result.body);
+            } else {
+                out.appendString(",\"error\":").appendString(Json.encode(result.error));
+            }
+            out.appendByte((byte) '}');
+        }
+        out.appendByte((byte) ']');
+        ctx.response().putHeader(HttpHeaders.CONTENT_TYPE, "application/json;charset=UTF-8");
+        ctx.response().end(CompressionHandler.compress(ctx, out));
+    }
+
+    /**
+     * 同名的多个响应头编码为数组
+     */
+    private static String encodeHeaders(MultiMap headers) {
+        JsonObject json = new JsonObject();
+        for (String name : headers.names()) {
+            List<String> values = headers.getAll(name);
+            json.put(name, values.size() == 1 ? values.get(0) : new JsonArray(new ArrayList<>(values)));
+        }
+        return json.encode();
+    }
+
+    private static void fail(RoutingContext ctx, int status, String message) {
+        HashMap<String, Object> map = new HashMap<>();
+        map.put("message", message);
+        ctx.response().setStatusCode(status)
+                .putHeader(HttpHeaders.CONTENT_TYPE, "application/json;charset=UTF-8")
+                .end(Json.encode(map));
+    }
+
+    private static final class ItemResult {
+        private final int status;
+        private final long durationMicros;
+        /**
+         * 子请求设置的响应头，失败时为null
+         */
+        private final MultiMap headers;
+        /**
+         * 已编码的JSON，失败时为null
+         */
+        private final Buffer body;
+        private final String error;
+
+        private ItemResult(int status, long start, MultiMap headers, Buffer body, String error) {
+            this.status = status;
+            this.durationMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            this.headers = headers;
+            this.body = body;
+            this.error = error;
+        }
+
+        static ItemResult ok(int status, MultiMap headers, Buffer body, long start) {
+            return new ItemResult(status, start, headers, body, null);
+        }
+
+        static ItemResult error(int status, String error, long start) {
+            return new ItemResult(status, start, null, null, error);
+        }
+    }
+}
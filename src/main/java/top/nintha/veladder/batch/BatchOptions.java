@@ -0,0 +1,35 @@
+package top.nintha.veladder.batch;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * 批量请求接口配置，默认从系统属性 veladder.batch.* 读取
+ */
+@Data
+@Accessors(chain = true)
+public class BatchOptions {
+    public static final String PREFIX = "veladder.batch";
+    public static final String DEFAULT_PATH = "/batch";
+    public static final int DEFAULT_MAX_SIZE = 20;
+    public static final long DEFAULT_BODY_LIMIT = 1024 * 1024;
+
+    private boolean enabled;
+    private String path = DEFAULT_PATH;
+    /**
+     * 单次批量请求最多包含的子请求数
+     */
+    private int maxSize = DEFAULT_MAX_SIZE;
+    /**
+     * 批量请求体大小上限(字节)
+     */
+    private long bodyLimit = DEFAULT_BODY_LIMIT;
+
+    public static BatchOptions fromSystemProperties() {
+        return new BatchOptions()
+                .setEnabled(Boolean.getBoolean(PREFIX))
+                .setPath(System.getProperty(PREFIX + ".path", DEFAULT_PATH))
+                .setMaxSize(Integer.getInteger(PREFIX + ".max-size", DEFAULT_MAX_SIZE))
+                .setBodyLimit(Long.getLong(PREFIX + ".body-limit", DEFAULT_BODY_LIMIT));
+    }
+}
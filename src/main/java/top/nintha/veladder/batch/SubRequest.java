@@ -0,0 +1,272 @@
+package top.nintha.veladder.batch;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.Cookie;
+import io.vertx.core.http.HttpConnection;
+import io.vertx.core.http.HttpFrame;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerFileUpload;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.http.StreamPriority;
+import io.vertx.core.net.NetSocket;
+
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.security.cert.X509Certificate;
+import java.util.Map;
+
+/**
+ * 子请求的HttpServerRequest，方法、路径、参数和请求体来自批量请求中的条目，
+ * 请求头、连接等只读信息来自批量请求本身。
+ * <p>
+ * 批量请求的请求体已经读完，子请求的读取操作只作用于自身：设置handler后在下一次事件循环中
+ * 交出条目的请求体并结束，不影响批量请求和其他子请求
+ */
+final class SubRequest implements HttpServerRequest {
+    private final HttpServerRequest parent;
+    private final SubRequestContext ctx;
+    private final Context context;
+    private final HttpMethod method;
+    private final String path;
+    private final MultiMap params;
+    /**
+     * 第一次访问时从批量请求复制，子请求修改请求头不影响其他子请求
+     */
+    private MultiMap headers;
+    private Handler<Buffer> dataHandler;
+    private Handler<Void> endHandler;
+    private boolean paused;
+    private boolean scheduled;
+    private boolean ended;
+    private boolean expectMultipart;
+
+    SubRequest(HttpServerRequest parent, SubRequestContext ctx, HttpMethod method, String path, MultiMap params) {
+        this.parent = parent;
+        this.ctx = ctx;
+        this.context = ctx.vertx().getOrCreateContext();
+        this.method = method;
+        this.path = path;
+        this.params = params;
+    }
+
+    @Override
+    public HttpMethod method() {
+        return method;
+    }
+
+    @Override
+    public String uri() {
+        return path;
+    }
+
+    @Override
+    public String path() {
+        return path;
+    }
+
+    @Override
+    public String query() {
+        return null;
+    }
+
+    @Override
+    public String absoluteURI() {
+        return parent.scheme() + "://" + parent.host() + path;
+    }
+
+    @Override
+    public MultiMap params() {
+        return params;
+    }
+
+    @Override
+    public String getParam(String paramName) {
+        return params.get(paramName);
+    }
+
+    @Override
+    public Future<Buffer> body() {
+        Buffer body = ctx.getBody();
+        return Future.succeededFuture(body == null ? Buffer.buffer() : body);
+    }
+
+    @Override
+    public HttpServerResponse response() {
+        return ctx.response();
+    }
+
+    @Override
+    public HttpServerRequest exceptionHandler(Handler<Throwable> handler) {
+        // 请求体已在内存中，读取不会失败
+        return this;
+    }
+
+    @Override
+    public HttpServerRequest handler(Handler<Buffer> handler) {
+        dataHandler = handler;
+        schedule();
+        return this;
+    }
+
+    @Override
+    public HttpServerRequest pause() {
+        paused = true;
+        return this;
+    }
+
+    @Override
+    public HttpServerRequest resume() {
+        paused = false;
+        schedule();
+        return this;
+    }
+
+    @Override
+    public HttpServerRequest fetch(long amount) {
+        return amount > 0 ? resume() : this;
+    }
+
+    @Override
+    public HttpServerRequest endHandler(Handler<Void> endHandler) {
+        this.endHandler = endHandler;
+        schedule();
+        return this;
+    }
+
+    @Override
+    public HttpVersion version() {
+        return parent.version();
+    }
+
+    @Override
+    public String scheme() {
+        return parent.scheme();
+    }
+
+    @Override
+    public String host() {
+        return parent.host();
+    }
+
+    @Override
+    public long bytesRead() {
+        Buffer body = ctx.getBody();
+        return body == null ? 0 : body.length();
+    }
+
+    @Override
+    public MultiMap headers() {
+        if (headers == null) {
+            headers = MultiMap.caseInsensitiveMultiMap().addAll(parent.headers());
+        }
+        return headers;
+    }
+
+    @Override
+    @Deprecated
+    @SuppressWarnings("removal")
+    public X509Certificate[] peerCertificateChain() throws SSLPeerUnverifiedException {
+        return parent.peerCertificateChain();
+    }
+
+    @Override
+    public Future<Void> end() {
+        // 请求体已全部收到
+        return Future.succeededFuture();
+    }
+
+    @Override
+    public Future<NetSocket> toNetSocket() {
+        return Future.failedFuture(new IllegalStateException("batch requests cannot be upgraded"));
+    }
+
+    @Override
+    public HttpServerRequest setExpectMultipart(boolean expect) {
+        expectMultipart = expect;
+        return this;
+    }
+
+    @Override
+    public boolean isExpectMultipart() {
+        return expectMultipart;
+    }
+
+    @Override
+    public HttpServerRequest uploadHandler(Handler<HttpServerFileUpload> uploadHandler) {
+        // 条目的请求体不是multipart，没有上传文件
+        return this;
+    }
+
+    @Override
+    public MultiMap formAttributes() {
+        return MultiMap.caseInsensitiveMultiMap();
+    }
+
+    @Override
+    public String getFormAttribute(String attributeName) {
+        return null;
+    }
+
+    @Override
+    public Future<ServerWebSocket> toWebSocket() {
+        return Future.failedFuture(new IllegalStateException("batch requests cannot be upgraded"));
+    }
+
+    @Override
+    public boolean isEnded() {
+        return ended;
+    }
+
+    @Override
+    public HttpServerRequest customFrameHandler(Handler<HttpFrame> handler) {
+        // 子请求没有HTTP/2流，不会收到自定义帧
+        return this;
+    }
+
+    @Override
+    public HttpConnection connection() {
+        return parent.connection();
+    }
+
+    @Override
+    public HttpServerRequest streamPriorityHandler(Handler<StreamPriority> handler) {
+        // 子请求没有HTTP/2流，优先级不会变化
+        return this;
+    }
+
+    @Override
+    public Map<String, Cookie> cookieMap() {
+        return parent.cookieMap();
+    }
+
+    private void schedule() {
+        if (!scheduled && !ended && !paused) {
+            scheduled = true;
+            context.runOnContext(v -> deliver());
+        }
+    }
+
+    /**
+     * 一次交出全部请求体，然后结束
+     */
+    private void deliver() {
+        scheduled = false;
+        if (paused || ended) {
+            return;
+        }
+        ended = true;
+        Buffer body = ctx.getBody();
+        if (body != null && body.length() > 0 && dataHandler != null) {
+            dataHandler.handle(body);
+        }
+        if (endHandler != null) {
+            endHandler.handle(null);
+        }
+    }
+}
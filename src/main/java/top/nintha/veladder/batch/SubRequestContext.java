@@ -0,0 +1,362 @@
+package top.nintha.veladder.batch;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.Cookie;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.web.FileUpload;
+import io.vertx.ext.web.ParsedHeaderValues;
+import io.vertx.ext.web.Route;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.Session;
+
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 子请求使用的RoutingContext，请求参数、路径和请求体来自批量请求中的条目，请求头、Cookie等只读信息来自批量请求本身。
+ * <p>
+ * 会产生副作用的操作只作用于子请求：响应写入{@link SubResponse}，上下文数据、会话、用户和失败状态各自独立，
+ * next和fail结束子请求，reroute在批量接口中重新分发，都不影响批量请求和其他子请求
+ */
+final class SubRequestContext implements RoutingContext {
+    private final RoutingContext parent;
+    private final SubRequest request;
+    private final SubResponse response;
+    private final String path;
+    private final MultiMap params;
+    private final Map<String, String> pathParams;
+    private final Map<String, Object> data;
+    private final Map<Integer, Handler<Void>> headersEndHandlers = new LinkedHashMap<>();
+    private final Map<Integer, Handler<Void>> bodyEndHandlers = new LinkedHashMap<>();
+    private final Map<Integer, Handler<AsyncResult<Void>>> endHandlers = new LinkedHashMap<>();
+    private int handlerSeq;
+    /**
+     * 请求体，可以为null
+     */
+    private Buffer body;
+    private Session session;
+    private User user;
+    private String acceptableContentType;
+    private int statusCode = -1;
+    private Throwable failure;
+    private boolean failed;
+    private HttpMethod rerouteMethod;
+    private String reroutePath;
+
+    /**
+     * @param body 请求体原文，可以为null
+     */
+    SubRequestContext(RoutingContext parent, HttpMethod method, String path, MultiMap params,
+                      Map<String, String> pathParams, String body) {
+        this.parent = parent;
+        this.path = path;
+        this.params = params;
+        this.pathParams = pathParams;
+        this.body = body == null ? null : Buffer.buffer(body);
+        this.data = new HashMap<>(parent.data());
+        this.session = parent.session();
+        this.user = parent.user();
+        this.acceptableContentType = parent.getAcceptableContentType();
+        this.request = new SubRequest(parent.request(), this, method, path, params);
+        this.response = new SubResponse(parent.vertx());
+        response.headersEndHandler(v -> headersEndHandlers.values().forEach(h -> h.handle(null)));
+        response.bodyEndHandler(v -> bodyEndHandlers.values().forEach(h -> h.handle(null)));
+        response.endHandler(v -> endHandlers.values().forEach(h -> h.handle(Future.succeededFuture())));
+        response.closeHandler(v -> endHandlers.values().forEach(h -> h.handle(Future.failedFuture("Connection closed"))));
+    }
+
+    /**
+     * 调用过reroute时为新的请求方法，否则为null
+     */
+    HttpMethod getRerouteMethod() {
+        return rerouteMethod;
+    }
+
+    /**
+     * 调用过reroute时为新的路径，否则为null
+     */
+    String getReroutePath() {
+        return reroutePath;
+    }
+
+    @Override
+    public SubRequest request() {
+        return request;
+    }
+
+    @Override
+    public SubResponse response() {
+        return response;
+    }
+
+    @Override
+    public String normalizedPath() {
+        return path;
+    }
+
+    @Override
+    public String getBodyAsString() {
+        return body == null ? null : body.toString();
+    }
+
+    @Override
+    public String getBodyAsString(String encoding) {
+        return body == null ? null : body.toString(encoding);
+    }
+
+    @Override
+    public JsonObject getBodyAsJson(int maxAllowedLength) {
+        return body == null ? null : new JsonObject(body);
+    }
+
+    @Override
+    public JsonArray getBodyAsJsonArray(int maxAllowedLength) {
+        return body == null ? null : new JsonArray(body);
+    }
+
+    @Override
+    public Buffer getBody() {
+        return body;
+    }
+
+    @Override
+    public void setBody(Buffer body) {
+        this.body = body;
+    }
+
+    @Override
+    public Set<FileUpload> fileUploads() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public Map<String, String> pathParams() {
+        return pathParams;
+    }
+
+    @Override
+    public String pathParam(String name) {
+        return pathParams.get(name);
+    }
+
+    @Override
+    public MultiMap queryParams() {
+        return params;
+    }
+
+    @Override
+    public MultiMap queryParams(Charset encoding) {
+        return params;
+    }
+
+    @Override
+    public List<String> queryParam(String query) {
+        return params.getAll(query);
+    }
+
+    /**
+     * 子请求之后没有其他handler，与Router一样按404处理
+     */
+    @Override
+    public void next() {
+        fail(404);
+    }
+
+    @Override
+    public void fail(int statusCode) {
+        fail(statusCode, null);
+    }
+
+    @Override
+    public void fail(Throwable throwable) {
+        fail(-1, throwable);
+    }
+
+    @Override
+    public void fail(int statusCode, Throwable throwable) {
+        if (!failed) {
+            failed = true;
+            this.statusCode = statusCode;
+            this.failure = throwable;
+        }
+    }
+
+    @Override
+    public RoutingContext put(String key, Object obj) {
+        data.put(key, obj);
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key) {
+        return (T) data.get(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T remove(String key) {
+        return (T) data.remove(key);
+    }
+
+    @Override
+    public Map<String, Object> data() {
+        return data;
+    }
+
+    @Override
+    public Vertx vertx() {
+        return parent.vertx();
+    }
+
+    @Override
+    public String mountPoint() {
+        return parent.mountPoint();
+    }
+
+    @Override
+    public Route currentRoute() {
+        return parent.currentRoute();
+    }
+
+    @Override
+    public Cookie getCookie(String name) {
+        return parent.getCookie(name);
+    }
+
+    @Override
+    public RoutingContext addCookie(Cookie cookie) {
+        response.addCookie(cookie);
+        return this;
+    }
+
+    @Override
+    public Cookie removeCookie(String name, boolean invalidate) {
+        return response.removeCookie(name, invalidate);
+    }
+
+    @Override
+    public int cookieCount() {
+        return parent.cookieCount();
+    }
+
+    @Override
+    public Map<String, Cookie> cookieMap() {
+        return parent.cookieMap();
+    }
+
+    @Override
+    public Session session() {
+        return session;
+    }
+
+    @Override
+    public boolean isSessionAccessed() {
+        return parent.isSessionAccessed();
+    }
+
+    @Override
+    public User user() {
+        return user;
+    }
+
+    @Override
+    public Throwable failure() {
+        return failure;
+    }
+
+    @Override
+    public int statusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public String getAcceptableContentType() {
+        return acceptableContentType;
+    }
+
+    @Override
+    public ParsedHeaderValues parsedHeaders() {
+        return parent.parsedHeaders();
+    }
+
+    @Override
+    public int addHeadersEndHandler(Handler<Void> handler) {
+        headersEndHandlers.put(++handlerSeq, handler);
+        return handlerSeq;
+    }
+
+    @Override
+    public boolean removeHeadersEndHandler(int handlerID) {
+        return headersEndHandlers.remove(handlerID) != null;
+    }
+
+    @Override
+    public int addBodyEndHandler(Handler<Void> handler) {
+        bodyEndHandlers.put(++handlerSeq, handler);
+        return handlerSeq;
+    }
+
+    @Override
+    public boolean removeBodyEndHandler(int handlerID) {
+        return bodyEndHandlers.remove(handlerID) != null;
+    }
+
+    @Override
+    public int addEndHandler(Handler<AsyncResult<Void>> handler) {
+        endHandlers.put(++handlerSeq, handler);
+        return handlerSeq;
+    }
+
+    @Override
+    public boolean removeEndHandler(int handlerID) {
+        return endHandlers.remove(handlerID) != null;
+    }
+
+    @Override
+    public boolean failed() {
+        return failed;
+    }
+
+    @Override
+    public void setSession(Session session) {
+        this.session = session;
+    }
+
+    @Override
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    @Override
+    public void clearUser() {
+        this.user = null;
+    }
+
+    @Override
+    public void setAcceptableContentType(String contentType) {
+        this.acceptableContentType = contentType;
+    }
+
+    /**
+     * 记录新的目标，由批量接口在当前路由完成后按新的方法和路径重新分发
+     */
+    @Override
+    public void reroute(HttpMethod method, String path) {
+        this.rerouteMethod = method;
+        this.reroutePath = path;
+    }
+}
@@ -0,0 +1,395 @@
+package top.nintha.veladder.batch;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.Cookie;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 子请求的HttpServerResponse，只在内存中记录状态码、响应头和写入的内容，不写出到连接。
+ * 状态码和响应头作为批量结果的一部分返回，结果内容总是路由的返回值，controller写入的内容不返回
+ */
+final class SubResponse implements HttpServerResponse {
+    private final Vertx vertx;
+    private final MultiMap headers = MultiMap.caseInsensitiveMultiMap();
+    private final MultiMap trailers = MultiMap.caseInsensitiveMultiMap();
+    private final Map<String, Cookie> cookies = new LinkedHashMap<>();
+    private final Buffer written = Buffer.buffer();
+    private int statusCode = 200;
+    private String statusMessage;
+    private boolean chunked;
+    private boolean headWritten;
+    private boolean ended;
+    private boolean closed;
+    private Handler<Void> headersEndHandler;
+    private Handler<Void> bodyEndHandler;
+    private Handler<Void> endHandler;
+    private Handler<Void> closeHandler;
+
+    SubResponse(Vertx vertx) {
+        this.vertx = vertx;
+    }
+
+    /**
+     * 包含addCookie添加的Set-Cookie
+     */
+    MultiMap resultHeaders() {
+        MultiMap result = MultiMap.caseInsensitiveMultiMap().addAll(headers);
+        for (Cookie cookie : cookies.values()) {
+            result.add(HttpHeaders.SET_COOKIE, cookie.encode());
+        }
+        return result;
+    }
+
+    /**
+     * 子请求处理完成时调用，controller没有结束响应时在这里结束
+     */
+    void finish() {
+        if (!ended && !closed) {
+            end();
+        }
+    }
+
+    @Override
+    public HttpServerResponse exceptionHandler(Handler<Throwable> handler) {
+        // 不写出到连接，不会发生写异常
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse setWriteQueueMaxSize(int maxSize) {
+        return this;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+        return false;
+    }
+
+    @Override
+    public HttpServerResponse drainHandler(Handler<Void> handler) {
+        // 写队列永远不满
+        return this;
+    }
+
+    @Override
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public HttpServerResponse setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+        return this;
+    }
+
+    @Override
+    public String getStatusMessage() {
+        return statusMessage != null ? statusMessage : HttpResponseStatus.valueOf(statusCode).reasonPhrase();
+    }
+
+    @Override
+    public HttpServerResponse setStatusMessage(String statusMessage) {
+        this.statusMessage = statusMessage;
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse setChunked(boolean chunked) {
+        this.chunked = chunked;
+        return this;
+    }
+
+    @Override
+    public boolean isChunked() {
+        return chunked;
+    }
+
+    @Override
+    public MultiMap headers() {
+        return headers;
+    }
+
+    @Override
+    public HttpServerResponse putHeader(String name, String value) {
+        headers.set(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse putHeader(CharSequence name, CharSequence value) {
+        headers.set(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse putHeader(String name, Iterable<String> values) {
+        headers.set(name, values);
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse putHeader(CharSequence name, Iterable<CharSequence> values) {
+        headers.set(name, values);
+        return this;
+    }
+
+    @Override
+    public MultiMap trailers() {
+        return trailers;
+    }
+
+    @Override
+    public HttpServerResponse putTrailer(String name, String value) {
+        trailers.set(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse putTrailer(CharSequence name, CharSequence value) {
+        trailers.set(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse putTrailer(String name, Iterable<String> values) {
+        trailers.set(name, values);
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse putTrailer(CharSequence name, Iterable<CharSequence> values) {
+        trailers.set(name, values);
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse closeHandler(Handler<Void> handler) {
+        this.closeHandler = handler;
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse endHandler(Handler<Void> handler) {
+        this.endHandler = handler;
+        return this;
+    }
+
+    @Override
+    public Future<Void> write(Buffer data) {
+        if (ended || closed) {
+            return Future.failedFuture(new IllegalStateException("Response has already been written"));
+        }
+        writeHead();
+        written.appendBuffer(data);
+        return Future.succeededFuture();
+    }
+
+    @Override
+    public void write(Buffer data, Handler<AsyncResult<Void>> handler) {
+        reply(write(data), handler);
+    }
+
+    @Override
+    public Future<Void> write(String chunk, String enc) {
+        return write(Buffer.buffer(chunk, enc));
+    }
+
+    @Override
+    public void write(String chunk, String enc, Handler<AsyncResult<Void>> handler) {
+        reply(write(chunk, enc), handler);
+    }
+
+    @Override
+    public Future<Void> write(String chunk) {
+        return write(Buffer.buffer(chunk));
+    }
+
+    @Override
+    public void write(String chunk, Handler<AsyncResult<Void>> handler) {
+        reply(write(chunk), handler);
+    }
+
+    @Override
+    public HttpServerResponse writeContinue() {
+        return this;
+    }
+
+    @Override
+    public Future<Void> end(String chunk) {
+        return end(Buffer.buffer(chunk));
+    }
+
+    @Override
+    public void end(String chunk, Handler<AsyncResult<Void>> handler) {
+        reply(end(chunk), handler);
+    }
+
+    @Override
+    public Future<Void> end(String chunk, String enc) {
+        return end(Buffer.buffer(chunk, enc));
+    }
+
+    @Override
+    public void end(String chunk, String enc, Handler<AsyncResult<Void>> handler) {
+        reply(end(chunk, enc), handler);
+    }
+
+    @Override
+    public Future<Void> end(Buffer chunk) {
+        Future<Void> result = write(chunk);
+        if (result.succeeded()) {
+            ended = true;
+            fire(bodyEndHandler);
+            fire(endHandler);
+        }
+        return result;
+    }
+
+    @Override
+    public void end(Buffer chunk, Handler<AsyncResult<Void>> handler) {
+        reply(end(chunk), handler);
+    }
+
+    @Override
+    public Future<Void> end() {
+        return end(Buffer.buffer());
+    }
+
+    @Override
+    public void end(Handler<AsyncResult<Void>> handler) {
+        reply(end(), handler);
+    }
+
+    /**
+     * 读取文件内容代替发送文件
+     */
+    @Override
+    public Future<Void> sendFile(String filename, long offset, long length) {
+        if (ended || closed) {
+            return Future.failedFuture(new IllegalStateException("Response has already been written"));
+        }
+        return vertx.fileSystem().readFile(filename).compose(file -> {
+            int start = (int) Math.min(offset, file.length());
+            int end = (int) Math.min(file.length(), start + Math.min(length, Integer.MAX_VALUE));
+            return end(file.getBuffer(start, end));
+        });
+    }
+
+    @Override
+    public HttpServerResponse sendFile(String filename, long offset, long length, Handler<AsyncResult<Void>> handler) {
+        Future<Void> result = sendFile(filename, offset, length);
+        if (handler != null) {
+            result.onComplete(handler);
+        }
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            fire(closeHandler);
+        }
+    }
+
+    @Override
+    public boolean ended() {
+        return ended;
+    }
+
+    @Override
+    public boolean closed() {
+        return closed;
+    }
+
+    @Override
+    public boolean headWritten() {
+        return headWritten;
+    }
+
+    @Override
+    public HttpServerResponse headersEndHandler(Handler<Void> handler) {
+        this.headersEndHandler = handler;
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse bodyEndHandler(Handler<Void> handler) {
+        this.bodyEndHandler = handler;
+        return this;
+    }
+
+    @Override
+    public long bytesWritten() {
+        return written.length();
+    }
+
+    @Override
+    public int streamId() {
+        return -1;
+    }
+
+    @Override
+    public Future<HttpServerResponse> push(HttpMethod method, String host, String path, MultiMap headers) {
+        // 与HTTP/1.x的响应一致
+        return Future.failedFuture(new IllegalStateException("Push promise is only supported with HTTP2"));
+    }
+
+    @Override
+    public boolean reset(long code) {
+        close();
+        return true;
+    }
+
+    @Override
+    public HttpServerResponse writeCustomFrame(int type, int flags, Buffer payload) {
+        // 与HTTP/1.x的响应一致，忽略自定义帧
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse addCookie(Cookie cookie) {
+        cookies.put(cookie.getName(), cookie);
+        return this;
+    }
+
+    @Override
+    public Cookie removeCookie(String name, boolean invalidate) {
+        Cookie cookie = cookies.remove(name);
+        if (cookie == null && invalidate) {
+            cookie = Cookie.cookie(name, "").setMaxAge(0L);
+            cookies.put(name, cookie);
+        }
+        return cookie;
+    }
+
+    private void writeHead() {
+        if (!headWritten) {
+            headWritten = true;
+            fire(headersEndHandler);
+        }
+    }
+
+    private static void fire(Handler<Void> handler) {
+        if (handler != null) {
+            handler.handle(null);
+        }
+    }
+
+    private static void reply(Future<Void> result, Handler<AsyncResult<Void>> handler) {
+        if (handler != null) {
+            result.onComplete(handler);
+        }
+    }
+}
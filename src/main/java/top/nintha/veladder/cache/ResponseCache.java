@@ -0,0 +1,165 @@
+package top.nintha.veladder.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.vertx.core.buffer.Buffer;
+import top.nintha.veladder.annotations.Cacheable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 单个路由的响应缓存，保存编码后的响应内容。
+ * <p>
+ * 基于Guava Cache实现过期和LRU淘汰。Guava不能同时限制条目数和总权重，
+ * 因此每个条目的权重至少为 maxBytes / maxEntries，总权重不超过maxBytes时条目数也不会超过maxEntries。
+ * 总权重按segment平分，这里只使用一个segment，否则较大的条目写入后会被立即淘汰；读取不加锁，影响不大。
+ * 正在加载的key记录在单独的表中，并发未命中的请求等待同一个结果
+ */
+public class ResponseCache {
+    private final String route;
+    private final String method;
+    /**
+     * 参与计算key的参数位置
+     */
+    private final boolean[] keyArgs;
+    private final Cache<Key, Buffer> cache;
+    private final Map<Key, CompletableFuture<Buffer>> loading = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * @param route   路由路径
+     * @param method  绑定的HttpMethod，全部时为*
+     * @param keyArgs 参与计算key的参数位置
+     */
+    public ResponseCache(String route, String method, boolean[] keyArgs, Cacheable options) {
+        this.route = route;
+        this.method = method;
+        this.keyArgs = keyArgs;
+        long minWeight = Math.max(1, options.maxBytes() / Math.max(1, options.maxEntries()));
+        this.cache = CacheBuilder.newBuilder()
+                .concurrencyLevel(1)
+                .expireAfterWrite(options.ttlSeconds(), TimeUnit.SECONDS)
+                .maximumWeight(options.maxBytes())
+                .weigher((Key key, Buffer value) -> (int) Math.min(Integer.MAX_VALUE, Math.max(minWeight, value.length())))
+                .recordStats()
+                .build();
+    }
+
+    public Key key(Object[] args) {
+        int size = 0;
+        for (boolean k : keyArgs) {
+            size += k ? 1 : 0;
+        }
+        Object[] values = new Object[size];
+        for (int i = 0, j = 0; i < args.length; i++) {
+            if (keyArgs[i]) {
+                values[j++] = args[i];
+            }
+        }
+        return new Key(values);
+    }
+
+    /**
+     * 命中时返回已完成的结果；其他请求正在加载同一个key时返回同一个结果；否则调用loader加载并写入缓存。
+     * 加载失败时不缓存，等待中的请求都会收到同一个异常
+     */
+    public CompletableFuture<Buffer> get(Key key, Supplier<CompletableFuture<Buffer>> loader) {
+        Buffer cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<Buffer> future = new CompletableFuture<>();
+        CompletableFuture<Buffer> existing = loading.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+        CompletableFuture<Buffer> loaded;
+        try {
+            loaded = loader.get();
+        } catch (RuntimeException | Error e) {
+            loaded = CompletableFuture.failedFuture(e);
+        }
+        loaded.whenComplete((buffer, err) -> {
+            if (err == null && buffer != null) {
+                cache.put(key, buffer);
+            }
+            loading.remove(key, future);
+            if (err == null) {
+                future.complete(buffer);
+            } else {
+                future.completeExceptionally(err);
+            }
+        });
+        return future;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public long getHits() {
+        return cache.stats().hitCount();
+    }
+
+    /**
+     * 未命中且由当前请求加载的次数
+     */
+    public long getMisses() {
+        CacheStats stats = cache.stats();
+        return stats.missCount() - coalesced.sum();
+    }
+
+    /**
+     * 未命中但等待其他请求加载结果的次数
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getEvictions() {
+        return cache.stats().evictionCount();
+    }
+
+    public long getEntries() {
+        return cache.size();
+    }
+
+    /**
+     * 缓存key，参数值按数组内容比较
+     */
+    public static final class Key {
+        private final Object[] values;
+        private final int hash;
+
+        private Key(Object[] values) {
+            this.values = values;
+            this.hash = Arrays.deepHashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Key && hash == ((Key) o).hash && Arrays.deepEquals(values, ((Key) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
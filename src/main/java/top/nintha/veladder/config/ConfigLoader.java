@@ -0,0 +1,98 @@
+package top.nintha.veladder.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 合并配置文件、环境变量和系统属性中的 veladder.* 配置，优先级依次升高。
+ * <p>
+ * 配置文件默认为工作目录或classpath下的 veladder.properties，可以用 -Dveladder.config 或环境变量 VELADDER_CONFIG 指定。
+ * 环境变量 VELADDER_SERVER_PORT 对应 veladder.server.port，双下划线对应中划线，
+ * 如 VELADDER_BLOCKING__DETECTOR 对应 veladder.blocking-detector
+ */
+@Slf4j
+public final class ConfigLoader {
+    public static final String FILE_PROPERTY = "veladder.config";
+    public static final String FILE_ENV = "VELADDER_CONFIG";
+    public static final String DEFAULT_FILE = "veladder.properties";
+    private static final String PREFIX = "veladder.";
+    private static final String ENV_PREFIX = "VELADDER_";
+
+    private ConfigLoader() {
+    }
+
+    /**
+     * 将合并后的配置写入未设置的系统属性，各模块的 fromSystemProperties 都能读取到，需要在创建Vertx之前调用
+     */
+    public static void install() {
+        Properties merged = load(System.getenv(), System.getProperties());
+        for (String key : merged.stringPropertyNames()) {
+            if (System.getProperty(key) == null) {
+                System.setProperty(key, merged.getProperty(key));
+            }
+        }
+    }
+
+    static Properties load(Map<String, String> env, Properties system) {
+        Properties merged = new Properties();
+        String explicit = system.getProperty(FILE_PROPERTY, env.get(FILE_ENV));
+        merged.putAll(readFile(explicit != null ? explicit : DEFAULT_FILE, explicit != null));
+        env.forEach((name, value) -> {
+            if (name.startsWith(ENV_PREFIX) && !name.equals(FILE_ENV)) {
+                merged.setProperty(envToKey(name), value);
+            }
+        });
+        for (String key : system.stringPropertyNames()) {
+            if (key.startsWith(PREFIX)) {
+                merged.setProperty(key, system.getProperty(key));
+            }
+        }
+        return merged;
+    }
+
+    static String envToKey(String name) {
+        return name.toLowerCase().replace("__", "-").replace('_', '.');
+    }
+
+    /**
+     * 先按文件路径读取，不存在时从classpath读取
+     *
+     * @param required 显式指定的文件不存在时抛出异常
+     */
+    private static Properties readFile(String file, boolean required) {
+        Properties properties = new Properties();
+        Path path = Paths.get(file);
+        try {
+            if (Files.isRegularFile(path)) {
+                try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+                log.info("[Config] loaded {}", path.toAbsolutePath());
+                return properties;
+            }
+            try (InputStream in = ConfigLoader.class.getClassLoader().getResourceAsStream(file)) {
+                if (in != null) {
+                    properties.load(in);
+                    log.info("[Config] loaded classpath:{}", file);
+                    return properties;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to read config " + file, e);
+        }
+        if (required) {
+            throw new IllegalStateException("config file not found: " + file);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,111 @@
+package top.nintha.veladder.config;
+
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpServerOptions;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import top.nintha.veladder.batch.BatchOptions;
+import top.nintha.veladder.http.CompressionOptions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务端配置，默认从系统属性 veladder.server.* 读取，配合{@link ConfigLoader}也可以来自配置文件和环境变量
+ */
+@Data
+@Accessors(chain = true)
+public class ServerOptions {
+    public static final String PREFIX = "veladder.server";
+    /**
+     * 兼容旧的实例数配置
+     */
+    public static final String INSTANCES_PROPERTY = "veladder.instances";
+    public static final int DEFAULT_PORT = 8080;
+
+    private String host = HttpServerOptions.DEFAULT_HOST;
+    private int port = DEFAULT_PORT;
+    /**
+     * 部署的verticle实例数，通常为event loop线程数
+     */
+    private int instances = VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE;
+    private int eventLoopPoolSize = VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE;
+    private int workerPoolSize = VertxOptions.DEFAULT_WORKER_POOL_SIZE;
+    /**
+     * 优先使用epoll/kqueue，不可用时Vert.x退回到NIO
+     */
+    private boolean nativeTransport = true;
+    /**
+     * 以下三项只在native transport可用时生效
+     */
+    private boolean reusePort = true;
+    private boolean tcpFastOpen;
+    private boolean tcpQuickAck;
+    private boolean tcpNoDelay = HttpServerOptions.DEFAULT_TCP_NO_DELAY;
+    /**
+     * 小于0时使用系统默认值
+     */
+    private int acceptBacklog = HttpServerOptions.DEFAULT_ACCEPT_BACKLOG;
+    /**
+     * 连接空闲超时，0表示不超时
+     */
+    private int idleTimeoutSeconds = HttpServerOptions.DEFAULT_IDLE_TIMEOUT;
+    private int maxHeaderSize = HttpServerOptions.DEFAULT_MAX_HEADER_SIZE;
+    private int maxInitialLineLength = HttpServerOptions.DEFAULT_MAX_INITIAL_LINE_LENGTH;
+    private CompressionOptions compression = new CompressionOptions();
+    private BatchOptions batch = new BatchOptions();
+
+    public static ServerOptions fromSystemProperties() {
+        String prefix = PREFIX + ".";
+        int eventLoops = Integer.getInteger(prefix + "event-loops", VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE);
+        return new ServerOptions()
+                .setHost(System.getProperty(prefix + "host", HttpServerOptions.DEFAULT_HOST))
+                .setPort(Integer.getInteger(prefix + "port", DEFAULT_PORT))
+                .setEventLoopPoolSize(eventLoops)
+                .setInstances(Integer.getInteger(prefix + "instances", Integer.getInteger(INSTANCES_PROPERTY, eventLoops)))
+                .setWorkerPoolSize(Integer.getInteger(prefix + "worker-pool-size", VertxOptions.DEFAULT_WORKER_POOL_SIZE))
+                .setNativeTransport(booleanProperty(prefix + "native-transport", true))
+                .setReusePort(booleanProperty(prefix + "reuse-port", true))
+                .setTcpFastOpen(booleanProperty(prefix + "tcp-fast-open", false))
+                .setTcpQuickAck(booleanProperty(prefix + "tcp-quick-ack", false))
+                .setTcpNoDelay(booleanProperty(prefix + "tcp-no-delay", HttpServerOptions.DEFAULT_TCP_NO_DELAY))
+                .setAcceptBacklog(Integer.getInteger(prefix + "accept-backlog", HttpServerOptions.DEFAULT_ACCEPT_BACKLOG))
+                .setIdleTimeoutSeconds(Integer.getInteger(prefix + "idle-timeout", HttpServerOptions.DEFAULT_IDLE_TIMEOUT))
+                .setMaxHeaderSize(Integer.getInteger(prefix + "max-header-size", HttpServerOptions.DEFAULT_MAX_HEADER_SIZE))
+                .setMaxInitialLineLength(Integer.getInteger(prefix + "max-initial-line-length", HttpServerOptions.DEFAULT_MAX_INITIAL_LINE_LENGTH))
+                .setCompression(CompressionOptions.fromSystemProperties())
+                .setBatch(BatchOptions.fromSystemProperties());
+    }
+
+    private static boolean booleanProperty(String key, boolean defaultValue) {
+        String value = System.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    public VertxOptions toVertxOptions() {
+        return new VertxOptions()
+                .setEventLoopPoolSize(eventLoopPoolSize)
+                .setWorkerPoolSize(workerPoolSize)
+                .setPreferNativeTransport(nativeTransport);
+    }
+
+    /**
+     * @param nativeTransportEnabled 当前Vertx实例是否使用了native transport
+     */
+    public HttpServerOptions toHttpServerOptions(boolean nativeTransportEnabled) {
+        HttpServerOptions options = new HttpServerOptions()
+                .setHost(host)
+                .setPort(port)
+                .setTcpNoDelay(tcpNoDelay)
+                .setAcceptBacklog(acceptBacklog)
+                .setIdleTimeout(idleTimeoutSeconds)
+                .setIdleTimeoutUnit(TimeUnit.SECONDS)
+                .setMaxHeaderSize(maxHeaderSize)
+                .setMaxInitialLineLength(maxInitialLineLength);
+        if (nativeTransportEnabled) {
+            options.setReusePort(reusePort)
+                    .setTcpFastOpen(tcpFastOpen)
+                    .setTcpQuickAck(tcpQuickAck);
+        }
+        return options;
+    }
+}
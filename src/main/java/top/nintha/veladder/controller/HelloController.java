@@ -23,12 +23,12 @@ public class HelloController {
         log.info("call void");
     }
 
-    @RequestMapping("echo/text")
+    @RequestMapping(value = "echo/text", etag = true, cacheControl = "no-cache")
     public String echoText(String text) {
         return text;
     }
 
-    @RequestMapping("echo/object")
+    @RequestMapping(value = "echo/object", form = true)
     public Map<String, Object> echoObject(String text, Long number, int code, RoutingContext ctx) {
         log.info("uri={}", ctx.request().absoluteURI());
 
@@ -40,7 +40,7 @@ public class HelloController {
         return map;
     }
 
-    @RequestMapping(value = "hello/array")
+    @RequestMapping(value = "hello/array", form = true)
     public HashMap<String, Object> helloArray(long[] ids, String[] names, RoutingContext ctx) {
         log.info("ids={}", Arrays.toString(ids));
         log.info("names={}", Arrays.toString(names));
@@ -51,7 +51,7 @@ public class HelloController {
         return map;
     }
 
-    @RequestMapping("hello/list")
+    @RequestMapping(value = "hello/list", form = true)
     public HashMap<String, Object> helloList(List<Long> ids, TreeSet<String> names, LinkedList rawList, RoutingContext ctx) {
         log.info("ids={}", ids);
         log.info("names={}", names);
@@ -76,6 +76,12 @@ public class HelloController {
         return req;
     }
 
+    @RequestMapping(value = "post/created", method = "POST")
+    public MockUser postCreated(@RequestBody MockUser req, RoutingContext ctx) {
+        ctx.response().setStatusCode(201).putHeader("Location", "/query/bean?id=" + req.getId());
+        return req;
+    }
+
     @RequestMapping("hello/path/variable/:token/:id")
     public String helloPathVariable(String token, Long id, RoutingContext ctx) {
         log.info("token={}", token);
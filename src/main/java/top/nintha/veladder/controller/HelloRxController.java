@@ -1,18 +1,32 @@
 package top.nintha.veladder.controller;
 
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
 import io.reactivex.Single;
-import io.vertx.core.file.FileSystem;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerFileUpload;
 import io.vertx.ext.web.FileUpload;
 import io.vertx.ext.web.RoutingContext;
+import io.vertx.reactivex.FlowableHelper;
 import lombok.extern.slf4j.Slf4j;
+import top.nintha.veladder.annotations.BlockingService;
+import top.nintha.veladder.annotations.Cacheable;
 import top.nintha.veladder.annotations.RequestMapping;
 import top.nintha.veladder.annotations.RestController;
+import top.nintha.veladder.annotations.StreamFormat;
 import top.nintha.veladder.dao.MockUserDao;
 import top.nintha.veladder.entity.MockUser;
+import top.nintha.veladder.http.FileUploads;
+import top.nintha.veladder.http.StaticFiles;
 import top.nintha.veladder.utils.Singles;
 
+import java.nio.file.Path;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 @Slf4j
@@ -25,39 +39,106 @@ public class HelloRxController {
         return Single.just("Hello world");
     }
 
-    @RequestMapping(value = "rx/users/default", method = "GET")
+    @Cacheable(ttlSeconds = 5)
+    @RequestMapping(value = "rx/users/default", method = "GET", maxConcurrency = 64)
     public Single<MockUser> findDefaultUser() {
-        return Singles.supplyAsync(MOCK_USER_DAO::findDefaultUser);
+        return Singles.supplyBlocking(MOCK_USER_DAO, MockUserDao::findDefaultUser);
+    }
+
+    @RequestMapping(value = "rx/users/timeout", method = "GET", timeoutMillis = 200)
+    public Single<MockUser> findDefaultUserWithTimeout() {
+        // 超时后取消订阅，worker线程上的调用被中断
+        return Singles.supplyBlocking(MOCK_USER_DAO, MockUserDao::findDefaultUser);
     }
 
     @RequestMapping(value = "rx/users/exception", method = "GET")
     public Single<String> exceptionAction() {
-        return Singles.supplyAsync(MOCK_USER_DAO::blockingActionWithException);
+        return Singles.supplyBlocking(MOCK_USER_DAO, MockUserDao::blockingActionWithException);
+    }
+
+    @RequestMapping(value = "async/users", method = "GET")
+    public CompletableFuture<MockUser> findUserAsync(int id) {
+        // 直接返回CompletionStage和Vert.x Future，不需要转换为Single
+        return CompletableFuture.completedFuture(mockUser(id));
+    }
+
+    @RequestMapping(value = "async/users/timeout", method = "GET", timeoutMillis = 200)
+    public CompletableFuture<MockUser> findDefaultUserAsyncWithTimeout() {
+        return CompletableFuture.supplyAsync(MOCK_USER_DAO::findDefaultUser);
+    }
+
+    @RequestMapping(value = "future/users", method = "GET")
+    public Future<MockUser> findUserFuture(int id, RoutingContext ctx) {
+        Promise<MockUser> promise = Promise.promise();
+        ctx.vertx().setTimer(10, timer -> promise.complete(mockUser(id)));
+        return promise.future();
+    }
+
+    @RequestMapping(value = "rx/users/maybe", method = "GET")
+    public Maybe<MockUser> findUserMaybe(Integer id) {
+        // 为空时返回空响应
+        return id == null ? Maybe.empty() : Maybe.just(mockUser(id));
+    }
+
+    @RequestMapping(value = "rx/users/touch", method = "POST")
+    public Completable touchUser(Integer id) {
+        return Completable.complete();
+    }
+
+    @BlockingService
+    @RequestMapping(value = "blocking/thread", method = "GET")
+    public String blockingThread() {
+        // 在worker池中执行，可以直接调用阻塞API
+        return Thread.currentThread().getName();
+    }
+
+    @RequestMapping(value = "rx/users/stream", method = "GET")
+    public Flowable<MockUser> streamUsers(Integer count) {
+        return Flowable.range(0, count == null ? 10 : count).map(HelloRxController::mockUser);
+    }
+
+    @RequestMapping(value = "rx/users/ndjson", method = "GET", stream = StreamFormat.NDJSON)
+    public Flowable<MockUser> streamUsersAsNdjson(Integer count) {
+        if (count != null && count < 0) {
+            // 在第一个元素之前失败，返回普通的JSON错误
+            return Flowable.error(new IllegalArgumentException("count must not be negative"));
+        }
+        return Flowable.range(0, count == null ? 10 : count).map(HelloRxController::mockUser);
+    }
+
+    private static MockUser mockUser(int i) {
+        MockUser user = new MockUser();
+        user.setId((long) i);
+        user.setName("user" + i);
+        return user;
     }
 
     @RequestMapping(value = "rx/file/upload", method = "GET")
-    public Single<String> uploadFile(FileUpload file, RoutingContext ctx){
+    public Future<String> uploadFile(FileUpload file, RoutingContext ctx){
         if(file == null){
             log.error("upload failed");
-            return Single.just("");
+            return Future.succeededFuture("");
         }
-
-        FileSystem fileSystem = ctx.vertx().fileSystem();
-        fileSystem.readFile(file.uploadedFileName(), ar -> {
-            if(ar.succeeded()){
-                fileSystem.writeFile(file.fileName(), ar.result(), writeAr -> {
-                    if(writeAr.succeeded()){
-                        log.info("upload ok.");
-                    }else {
-                        log.error("error", ar.cause());
-                    }
-                });
-            }else{
-                log.error("error", ar.cause());
-            }
-        });
         log.info("{}", file.uploadedFileName());
-        return Single.just(file.fileName());
+        // 临时文件直接重命名到目标位置，不再读入内存后重新写出
+        return FileUploads.moveTo(ctx.vertx(), file, Path.of(""))
+                .onFailure(e -> log.error("error", e))
+                .map(target -> file.fileName());
+    }
+
+    @RequestMapping(value = "rx/file/upload/stream", method = "POST")
+    public Single<Map<String, Long>> uploadStream(Flowable<HttpServerFileUpload> parts) {
+        // 每个part直接从请求中读取，不经过临时文件，这里只统计大小，也可以pipeTo文件或socket
+        return parts.concatMapSingle(part -> FlowableHelper.toFlowable(part)
+                        .reduce(0L, (size, buffer) -> size + buffer.length())
+                        .map(size -> Map.entry(part.filename(), size)))
+                .toMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    @RequestMapping(value = "rx/body/size", method = "POST")
+    public Single<Long> bodySize(Flowable<Buffer> body) {
+        // 请求体不经过缓存，按块读取
+        return body.reduce(0L, (size, buffer) -> size + buffer.length());
     }
 
     @RequestMapping(value = "rx/file/download", method = "GET")
@@ -65,7 +146,7 @@ public class HelloRxController {
         ctx.response()
                 .putHeader(HttpHeaders.CONTENT_TYPE, "application/octet-stream")
                 .putHeader("Content-Disposition", "attachment; filename=\"pic.jpg\"")
-                .putHeader(HttpHeaders.TRANSFER_ENCODING, "chunked")
-                .sendFile("src/main/resources/assert/pic.jpg");
+                .putHeader(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        StaticFiles.sendFile(ctx, "src/main/resources/assert/pic.jpg");
     }
 }
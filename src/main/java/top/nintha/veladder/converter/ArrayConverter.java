@@ -0,0 +1,12 @@
+package top.nintha.veladder.converter;
+
+import java.util.List;
+
+/**
+ * 将同名的多个请求参数值转换为数组，基础类型数组直接填充不经过装箱
+ */
+@FunctionalInterface
+public interface ArrayConverter {
+
+    Object convert(List<String> values) throws Exception;
+}
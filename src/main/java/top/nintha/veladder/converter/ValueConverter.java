@@ -0,0 +1,12 @@
+package top.nintha.veladder.converter;
+
+/**
+ * 将单个请求参数值转换为目标类型，传入的值不会为空白字符串
+ *
+ * @param <T> 目标类型
+ */
+@FunctionalInterface
+public interface ValueConverter<T> {
+
+    T convert(String value) throws Exception;
+}
@@ -0,0 +1,10 @@
+package top.nintha.veladder.converter;
+
+/**
+ * 自定义转换器的SPI，实现类通过 META-INF/services/top.nintha.veladder.converter.ValueConverterProvider 声明，
+ * 在{@link ValueConverters}初始化时加载，并在其中调用{@link ValueConverters#register(Class, ValueConverter)}
+ */
+public interface ValueConverterProvider {
+
+    void registerConverters();
+}
@@ -0,0 +1,186 @@
+package top.nintha.veladder.converter;
+
+import com.google.common.primitives.Primitives;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 参数值转换器注册表，路由编译时解析转换器，请求时直接调用
+ */
+@Slf4j
+public final class ValueConverters {
+    private static final Map<Class<?>, ValueConverter<?>> CONVERTERS = new ConcurrentHashMap<>();
+    /**
+     * 内置转换器，用于判断是否被自定义转换器覆盖
+     */
+    private static final Map<Class<?>, ValueConverter<?>> BUILT_IN;
+
+    static {
+        register(String.class, value -> value);
+        register(Integer.class, Integer::valueOf);
+        register(Long.class, Long::valueOf);
+        register(Double.class, Double::valueOf);
+        register(Float.class, Float::valueOf);
+        register(Short.class, Short::valueOf);
+        register(Byte.class, Byte::valueOf);
+        register(Boolean.class, Boolean::valueOf);
+        register(Character.class, value -> value.charAt(0));
+        register(BigDecimal.class, BigDecimal::new);
+        register(BigInteger.class, BigInteger::new);
+        register(UUID.class, UUID::fromString);
+        register(Instant.class, Instant::parse);
+        register(LocalDate.class, LocalDate::parse);
+        register(LocalDateTime.class, LocalDateTime::parse);
+        BUILT_IN = Map.copyOf(CONVERTERS);
+
+        for (ValueConverterProvider provider : ServiceLoader.load(ValueConverterProvider.class)) {
+            log.info("[ValueConverters] load provider {}", provider.getClass().getName());
+            provider.registerConverters();
+        }
+    }
+
+    private ValueConverters() {
+    }
+
+    /**
+     * 注册转换器，基础类型使用其包装类型注册
+     */
+    public static <T> void register(Class<T> type, ValueConverter<? extends T> converter) {
+        CONVERTERS.put(Primitives.wrap(type), converter);
+    }
+
+    /**
+     * 是否存在对应的转换器，枚举类型总是支持
+     */
+    public static boolean supports(Class<?> type) {
+        Class<?> wrapType = Primitives.wrap(type);
+        return wrapType.isEnum() || CONVERTERS.containsKey(wrapType);
+    }
+
+    /**
+     * 是否仍使用内置转换器，基础类型只有在没有自定义转换器时才能直接解析
+     */
+    public static boolean isBuiltIn(Class<?> type) {
+        Class<?> wrapType = Primitives.wrap(type);
+        ValueConverter<?> converter = BUILT_IN.get(wrapType);
+        return converter != null && converter == CONVERTERS.get(wrapType);
+    }
+
+    /**
+     * 查找转换器，未注册的枚举类型按名称转换
+     *
+     * @return 不支持的类型返回null
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> ValueConverter<T> find(Class<T> type) {
+        Class<?> wrapType = Primitives.wrap(type);
+        ValueConverter<?> converter = CONVERTERS.get(wrapType);
+        if (converter == null && wrapType.isEnum()) {
+            Class<? extends Enum> enumType = (Class<? extends Enum>) wrapType;
+            converter = value -> Enum.valueOf(enumType, value);
+        }
+        return (ValueConverter<T>) converter;
+    }
+
+    /**
+     * 数组转换器，基础类型数组使用专门的解析方法直接填充
+     */
+    public static ArrayConverter findArray(Class<?> componentType) {
+        if (componentType == long.class) {
+            return values -> {
+                long[] array = new long[values.size()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = Long.parseLong(values.get(i));
+                }
+                return array;
+            };
+        } else if (componentType == int.class) {
+            return values -> {
+                int[] array = new int[values.size()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = Integer.parseInt(values.get(i));
+                }
+                return array;
+            };
+        } else if (componentType == double.class) {
+            return values -> {
+                double[] array = new double[values.size()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = Double.parseDouble(values.get(i));
+                }
+                return array;
+            };
+        } else if (componentType == float.class) {
+            return values -> {
+                float[] array = new float[values.size()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = Float.parseFloat(values.get(i));
+                }
+                return array;
+            };
+        } else if (componentType == short.class) {
+            return values -> {
+                short[] array = new short[values.size()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = Short.parseShort(values.get(i));
+                }
+                return array;
+            };
+        } else if (componentType == byte.class) {
+            return values -> {
+                byte[] array = new byte[values.size()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = Byte.parseByte(values.get(i));
+                }
+                return array;
+            };
+        } else if (componentType == boolean.class) {
+            return values -> {
+                boolean[] array = new boolean[values.size()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = Boolean.parseBoolean(values.get(i));
+                }
+                return array;
+            };
+        } else if (componentType == char.class) {
+            return values -> {
+                char[] array = new char[values.size()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = values.get(i).charAt(0);
+                }
+                return array;
+            };
+        }
+
+        ValueConverter<?> converter = find(componentType);
+        if (converter == null) {
+            return null;
+        }
+        // 通过空数组原型复制创建数组，避免每次请求反射调用Array.newInstance
+        Object[] prototype = (Object[]) java.lang.reflect.Array.newInstance(componentType, 0);
+        return values -> {
+            Object[] array = Arrays.copyOf(prototype, values.size());
+            for (int i = 0; i < array.length; i++) {
+                array[i] = convert(values.get(i), converter);
+            }
+            return array;
+        };
+    }
+
+    /**
+     * 空白字符串转换为null
+     */
+    public static <T> T convert(String value, ValueConverter<T> converter) throws Exception {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return converter.convert(value);
+    }
+}
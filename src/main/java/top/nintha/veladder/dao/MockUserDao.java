@@ -1,8 +1,12 @@
 package top.nintha.veladder.dao;
 
+import lombok.extern.slf4j.Slf4j;
 import top.nintha.veladder.annotations.BlockingService;
 import top.nintha.veladder.entity.MockUser;
 
+import java.util.concurrent.CancellationException;
+
+@Slf4j
 @BlockingService
 public class MockUserDao {
 
@@ -10,7 +14,11 @@ public class MockUserDao {
         try {
             Thread.sleep(5000);
         } catch (InterruptedException e) {
-            e.printStackTrace();
+            // 超时或客户端断开时被取消
+            Thread.currentThread().interrupt();
+            log.debug("findDefaultUser interrupted");
+            // 调用方已经不再等待结果，不再构造返回值
+            throw new CancellationException("findDefaultUser interrupted");
         }
         return MockUser.defaultUser();
     }
@@ -19,7 +27,9 @@ public class MockUserDao {
         try {
             Thread.sleep(5000);
         } catch (InterruptedException e) {
-            e.printStackTrace();
+            // 超时或客户端断开时被取消
+            Thread.currentThread().interrupt();
+            log.debug("blockingActionWithException interrupted");
         }
         throw new RuntimeException("test throw error");
     }
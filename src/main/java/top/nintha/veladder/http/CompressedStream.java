@@ -0,0 +1,99 @@
+package top.nintha.veladder.http;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 响应内容的增量压缩，每次写入后同步刷新，客户端可以立即解压已收到的部分。
+ * 非线程安全，只在请求所在的context上使用；没有调用{@link #finish}时必须调用{@link #close}释放Deflater
+ */
+public final class CompressedStream {
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+    private final Deflater deflater;
+    private final DeflaterOutputStream out;
+    private boolean closed;
+
+    CompressedStream(String encoding, int level) {
+        try {
+            if (GZIP.equals(encoding)) {
+                deflater = null;
+                out = new GZIPOutputStream(bytes, 512, true) {
+                    {
+                        def.setLevel(level);
+                    }
+                };
+            } else {
+                deflater = new Deflater(level);
+                out = new DeflaterOutputStream(bytes, deflater, 512, true);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return 本次可以写出的压缩内容，可能为空
+     */
+    public Buffer write(Buffer chunk) {
+        try {
+            out.write(chunk.getBytes());
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return drain();
+    }
+
+    /**
+     * 写入最后一块内容并结束压缩
+     *
+     * @param last 可以为null
+     */
+    public Buffer finish(Buffer last) {
+        try {
+            if (last != null) {
+                out.write(last.getBytes());
+            }
+            out.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            close();
+        }
+        return drain();
+    }
+
+    /**
+     * 释放Deflater，可以重复调用
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            out.close();
+        } catch (IOException e) {
+            // ByteArrayOutputStream不会抛出异常
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    private Buffer drain() {
+        Buffer buffer = Buffer.buffer(bytes.toByteArray());
+        bytes.reset();
+        return buffer;
+    }
+}
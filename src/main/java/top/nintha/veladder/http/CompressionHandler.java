@@ -0,0 +1,127 @@
+package top.nintha.veladder.http;
+
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * 挂载在全部路由之前，按Accept-Encoding协商gzip/deflate并保存在RoutingContext中。
+ * 服务器本身不开启压缩，写出响应时通过{@link #compress}或{@link #stream}按内容类型和长度决定是否压缩，
+ * 不压缩的响应不带Content-Encoding
+ */
+public class CompressionHandler implements Handler<RoutingContext> {
+    private static final String KEY = CompressionHandler.class.getName();
+
+    private final CompressionOptions options;
+
+    public CompressionHandler(CompressionOptions options) {
+        this.options = options;
+    }
+
+    @Override
+    public void handle(RoutingContext ctx) {
+        ctx.put(KEY, new Negotiation(options, negotiate(ctx.request().getHeader(HttpHeaders.ACCEPT_ENCODING))));
+        ctx.next();
+    }
+
+    /**
+     * 需要时压缩完整的响应内容并设置Content-Encoding，未挂载本handler时原样返回
+     */
+    public static Buffer compress(RoutingContext ctx, Buffer body) {
+        CompressedStream stream = start(ctx, body.length());
+        return stream == null ? body : stream.finish(body);
+    }
+
+    /**
+     * 分块响应的压缩流，在写出第一块内容之前调用，未知长度的响应不受阈值限制
+     *
+     * @return 不压缩时为null
+     */
+    public static CompressedStream stream(RoutingContext ctx) {
+        return start(ctx, -1);
+    }
+
+    /**
+     * 按当前的响应头判断{@link #compress}会使用的编码，可能压缩时设置Vary: Accept-Encoding，
+     * 用于在写出之前计算与编码相关的ETag
+     *
+     * @param length 响应内容长度，未知时为-1
+     * @return 不压缩时为null
+     */
+    public static String encoding(RoutingContext ctx, long length) {
+        Negotiation negotiation = ctx.get(KEY);
+        if (negotiation == null) {
+            return null;
+        }
+        HttpServerResponse response = ctx.response();
+        MultiMap headers = response.headers();
+        if (headers.contains(HttpHeaders.CONTENT_ENCODING)
+                || negotiation.options.isSkipped(headers.get(HttpHeaders.CONTENT_TYPE))
+                || (length >= 0 && length < negotiation.options.getThreshold())) {
+            return null;
+        }
+        response.putHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        return negotiation.encoding;
+    }
+
+    private static CompressedStream start(RoutingContext ctx, long length) {
+        String encoding = encoding(ctx, length);
+        if (encoding == null) {
+            return null;
+        }
+        Negotiation negotiation = ctx.get(KEY);
+        ctx.response().putHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        return new CompressedStream(encoding, negotiation.options.getLevel());
+    }
+
+    /**
+     * 优先gzip，其次deflate，都不接受时返回null
+     */
+    static String negotiate(String acceptEncoding) {
+        if (accepts(acceptEncoding, CompressedStream.GZIP)) {
+            return CompressedStream.GZIP;
+        }
+        return accepts(acceptEncoding, CompressedStream.DEFLATE) ? CompressedStream.DEFLATE : null;
+    }
+
+    static boolean accepts(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String item : acceptEncoding.split(",")) {
+            String[] parts = item.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase(coding)) {
+                continue;
+            }
+            // gzip;q=0 表示明确不接受
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static final class Negotiation {
+        private final CompressionOptions options;
+        /**
+         * 客户端不接受压缩时为null
+         */
+        private final String encoding;
+
+        private Negotiation(CompressionOptions options, String encoding) {
+            this.options = options;
+            this.encoding = encoding;
+        }
+    }
+}
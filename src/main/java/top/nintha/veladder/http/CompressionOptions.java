@@ -0,0 +1,70 @@
+package top.nintha.veladder.http;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 响应压缩配置，默认从系统属性 veladder.compression.* 读取。
+ * 由{@link CompressionHandler}按Accept-Encoding协商gzip/deflate，小于阈值或已压缩的内容类型不压缩
+ */
+@Data
+@Accessors(chain = true)
+public class CompressionOptions {
+    public static final String PREFIX = "veladder.compression";
+    public static final int DEFAULT_LEVEL = 6;
+    public static final int DEFAULT_THRESHOLD = 1024;
+    /**
+     * 内容本身已压缩的类型，以/结尾时匹配整个大类
+     */
+    public static final String DEFAULT_SKIP_TYPES = "image/,video/,audio/,application/zip,application/gzip,"
+            + "application/x-gzip,application/x-7z-compressed,application/x-rar-compressed,application/octet-stream,font/woff2";
+
+    private boolean enabled;
+    /**
+     * 压缩级别 1-9
+     */
+    private int level = DEFAULT_LEVEL;
+    /**
+     * Content-Length小于该值时不压缩，未知长度的流式响应总是压缩
+     */
+    private int threshold = DEFAULT_THRESHOLD;
+    private Set<String> skipTypes = parseTypes(DEFAULT_SKIP_TYPES);
+
+    public static CompressionOptions fromSystemProperties() {
+        return new CompressionOptions()
+                .setEnabled(Boolean.getBoolean(PREFIX))
+                .setLevel(Integer.getInteger(PREFIX + ".level", DEFAULT_LEVEL))
+                .setThreshold(Integer.getInteger(PREFIX + ".threshold", DEFAULT_THRESHOLD))
+                .setSkipTypes(parseTypes(System.getProperty(PREFIX + ".skip-types", DEFAULT_SKIP_TYPES)));
+    }
+
+    static Set<String> parseTypes(String types) {
+        return Arrays.stream(types.split(","))
+                .map(String::trim)
+                .filter(t -> !t.isEmpty())
+                .map(String::toLowerCase)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * @param contentType 响应的Content-Type，可以带参数
+     */
+    public boolean isSkipped(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int end = contentType.indexOf(';');
+        String type = (end < 0 ? contentType : contentType.substring(0, end)).trim().toLowerCase();
+        for (String skip : skipTypes) {
+            if (skip.endsWith("/") ? type.startsWith(skip) : type.equals(skip)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
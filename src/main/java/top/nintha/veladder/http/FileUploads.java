@@ -0,0 +1,48 @@
+package top.nintha.veladder.http;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.file.CopyOptions;
+import io.vertx.ext.web.FileUpload;
+
+import java.nio.file.Path;
+
+/**
+ * 处理BodyHandler写入临时目录的上传文件
+ */
+public final class FileUploads {
+
+    private FileUploads() {
+    }
+
+    /**
+     * 将临时文件移动到目标目录，文件名取客户端提交的文件名并去掉其中的路径。
+     * 与临时目录在同一文件系统时只是重命名，不读取文件内容；跨文件系统时退化为复制后删除
+     *
+     * @return 目标文件路径
+     */
+    public static Future<String> moveTo(Vertx vertx, FileUpload upload, Path dir) {
+        String name = fileName(upload.fileName());
+        if (name == null) {
+            return Future.failedFuture(new IllegalArgumentException("invalid file name: " + upload.fileName()));
+        }
+        String target = dir.resolve(name).toString();
+        return vertx.fileSystem()
+                .move(upload.uploadedFileName(), target, new CopyOptions().setReplaceExisting(true))
+                .map(v -> target);
+    }
+
+    /**
+     * 客户端提交的文件名去掉路径，不能作为文件名时返回null
+     */
+    static String fileName(String submitted) {
+        if (submitted == null) {
+            return null;
+        }
+        String name = submitted.substring(Math.max(submitted.lastIndexOf('/'), submitted.lastIndexOf('\\')) + 1);
+        if (name.isEmpty() || name.equals(".") || name.equals("..") || name.indexOf('\0') >= 0) {
+            return null;
+        }
+        return name;
+    }
+}
@@ -0,0 +1,112 @@
+package top.nintha.veladder.http;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpServerFileUpload;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.ArrayDeque;
+
+/**
+ * multipart请求中的文件part按顺序组成的流，每个part本身是{@code ReadStream<Buffer>}，
+ * 内容直接从请求中读取，不经过BodyHandler的临时文件和内存缓存，可以pipe到文件、socket或摘要计算。
+ * <p>
+ * part交出时处于暂停状态，订阅方通过pipeTo、streamToFileSystem或FlowableHelper消费后才继续读取请求，
+ * 未消费的part会阻塞后续的part；普通表单字段在请求结束后从{@link HttpServerRequest#formAttributes()}读取。
+ * 只在event loop上使用
+ */
+public class MultipartStream implements ReadStream<HttpServerFileUpload> {
+    private final HttpServerRequest request;
+    /**
+     * 已解析但订阅方还没有请求的part
+     */
+    private final ArrayDeque<HttpServerFileUpload> pending = new ArrayDeque<>();
+    private Handler<HttpServerFileUpload> handler;
+    private Handler<Void> endHandler;
+    private long demand = Long.MAX_VALUE;
+    private boolean started;
+    private boolean ended;
+
+    /**
+     * @param request 已暂停读取的请求，设置handler后才开始读取
+     */
+    public MultipartStream(HttpServerRequest request) {
+        this.request = request;
+        request.setExpectMultipart(true);
+        request.uploadHandler(this::handlePart);
+        request.endHandler(v -> {
+            ended = true;
+            drain();
+        });
+    }
+
+    private void handlePart(HttpServerFileUpload part) {
+        // part的内容在其自身的缓冲区中等待，缓冲区满时请求暂停读取
+        part.pause();
+        pending.add(part);
+        drain();
+    }
+
+    private void drain() {
+        while (demand > 0 && !pending.isEmpty()) {
+            if (demand != Long.MAX_VALUE) {
+                demand--;
+            }
+            HttpServerFileUpload part = pending.poll();
+            if (handler != null) {
+                handler.handle(part);
+            }
+        }
+        if (ended && pending.isEmpty() && endHandler != null) {
+            Handler<Void> end = endHandler;
+            endHandler = null;
+            end.handle(null);
+        }
+    }
+
+    @Override
+    public MultipartStream exceptionHandler(Handler<Throwable> handler) {
+        request.exceptionHandler(handler);
+        return this;
+    }
+
+    @Override
+    public MultipartStream handler(Handler<HttpServerFileUpload> handler) {
+        this.handler = handler;
+        if (handler != null && !started) {
+            started = true;
+            request.resume();
+        }
+        return this;
+    }
+
+    @Override
+    public MultipartStream pause() {
+        demand = 0;
+        return this;
+    }
+
+    @Override
+    public MultipartStream resume() {
+        return fetch(Long.MAX_VALUE);
+    }
+
+    @Override
+    public MultipartStream fetch(long amount) {
+        if (amount > 0) {
+            demand += amount;
+            if (demand < 0) {
+                demand = Long.MAX_VALUE;
+            }
+            drain();
+        }
+        return this;
+    }
+
+    @Override
+    public MultipartStream endHandler(Handler<Void> endHandler) {
+        this.endHandler = endHandler;
+        drain();
+        return this;
+    }
+}
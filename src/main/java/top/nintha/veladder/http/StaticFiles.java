@@ -0,0 +1,51 @@
+package top.nintha.veladder.http;
+
+import io.vertx.core.Future;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 发送静态文件，客户端接受gzip且存在预先压缩的.gz文件时直接发送压缩文件，避免每次请求重复压缩。
+ * 没有.gz文件时按原文件发送，不做实时压缩
+ */
+public final class StaticFiles {
+    /**
+     * 文件是否存在.gz版本，静态文件在运行期间不变，结果只检查一次
+     */
+    private static final Map<String, Boolean> GZIPPED = new ConcurrentHashMap<>();
+
+    private StaticFiles() {
+    }
+
+    /**
+     * 未设置Content-Type时按原文件名推断，推断不出类型时不发送.gz文件，否则Vert.x会按.gz扩展名设置Content-Type
+     */
+    public static Future<Void> sendFile(RoutingContext ctx, String path) {
+        HttpServerResponse response = ctx.response();
+        response.putHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(ctx.request().getHeader(HttpHeaders.ACCEPT_ENCODING))
+                && GZIPPED.computeIfAbsent(path, p -> Files.isRegularFile(Paths.get(p + ".gz")))) {
+            if (!response.headers().contains(HttpHeaders.CONTENT_TYPE)) {
+                String contentType = URLConnection.guessContentTypeFromName(path);
+                if (contentType == null) {
+                    return response.sendFile(path);
+                }
+                response.putHeader(HttpHeaders.CONTENT_TYPE, contentType);
+            }
+            response.putHeader(HttpHeaders.CONTENT_ENCODING, CompressedStream.GZIP);
+            return response.sendFile(path + ".gz");
+        }
+        return response.sendFile(path);
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        return CompressionHandler.accepts(acceptEncoding, CompressedStream.GZIP);
+    }
+}
@@ -0,0 +1,71 @@
+package top.nintha.veladder.limit;
+
+/**
+ * 单个路由的准入控制，先检查全局上限再检查路由上限，两者都可以为null
+ */
+public class Admission {
+    private final String route;
+    private final String method;
+    private final ConcurrencyLimiter routeLimiter;
+    private final ConcurrencyLimiter globalLimiter;
+    private final int retryAfterSeconds;
+
+    public Admission(String route, String method, ConcurrencyLimiter routeLimiter, ConcurrencyLimiter globalLimiter, int retryAfterSeconds) {
+        this.route = route;
+        this.method = method;
+        this.routeLimiter = routeLimiter;
+        this.globalLimiter = globalLimiter;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return 成功时需要在请求结束后调用{@link #release(long, boolean)}
+     */
+    public boolean tryAcquire() {
+        if (globalLimiter != null && !globalLimiter.tryAcquire()) {
+            return false;
+        }
+        if (routeLimiter != null && !routeLimiter.tryAcquire()) {
+            if (globalLimiter != null) {
+                globalLimiter.cancel();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    public void release(long rttNanos, boolean overloaded) {
+        if (routeLimiter != null) {
+            routeLimiter.release(rttNanos, overloaded);
+        }
+        if (globalLimiter != null) {
+            globalLimiter.release(rttNanos, overloaded);
+        }
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * 未设置路由上限时为null
+     */
+    public ConcurrencyLimiter getRouteLimiter() {
+        return routeLimiter;
+    }
+
+    /**
+     * 未设置全局上限时为null
+     */
+    public ConcurrencyLimiter getGlobalLimiter() {
+        return globalLimiter;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,80 @@
+package top.nintha.veladder.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 同时处理的请求数上限，获取和释放都不加锁。
+ * minLimit小于maxLimit时按AIMD根据响应耗时调整当前上限，否则为固定上限
+ */
+public class ConcurrencyLimiter {
+    private final int maxLimit;
+    private final int minLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder shed = new LongAdder();
+
+    ConcurrencyLimiter(int maxLimit, int minLimit, double backoffRatio, long latencyThresholdNanos) {
+        this.maxLimit = maxLimit;
+        this.minLimit = Math.max(1, minLimit);
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = new AtomicInteger(maxLimit);
+    }
+
+    /**
+     * @return 达到上限时返回false并计入拒绝次数
+     */
+    public boolean tryAcquire() {
+        for (; ; ) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                shed.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 请求完成后释放，自适应模式下根据结果调整上限
+     *
+     * @param rttNanos   请求耗时
+     * @param overloaded 请求失败，例如返回5xx
+     */
+    public void release(long rttNanos, boolean overloaded) {
+        int current = inFlight.getAndDecrement();
+        if (minLimit >= maxLimit) {
+            return;
+        }
+        if (overloaded || rttNanos > latencyThresholdNanos) {
+            limit.updateAndGet(l -> Math.max(minLimit, (int) (l * backoffRatio)));
+        } else if (current * 2 >= limit.get()) {
+            // 只有并发接近上限时才说明上限不够用
+            limit.updateAndGet(l -> Math.min(maxLimit, l + 1));
+        }
+    }
+
+    /**
+     * 释放但不参与调整，用于获取后未实际处理的请求
+     */
+    void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getShed() {
+        return shed.sum();
+    }
+}
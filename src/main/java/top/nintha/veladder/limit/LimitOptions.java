@@ -0,0 +1,83 @@
+package top.nintha.veladder.limit;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 并发限制配置，默认从系统属性 veladder.limit.* 读取。
+ * 路由的上限可以在{@link top.nintha.veladder.annotations.RequestMapping#maxConcurrency()}中声明，
+ * 也可以用 veladder.limit.routes=/path=10,/other=20 覆盖
+ */
+@Data
+@Accessors(chain = true)
+public class LimitOptions {
+    public static final String PREFIX = "veladder.limit";
+
+    /**
+     * 全部路由同时处理的请求上限，小于等于0时不限制
+     */
+    private int globalMaxConcurrency;
+    /**
+     * 按路径覆盖注解中声明的上限
+     */
+    private Map<String, Integer> routeLimits = new HashMap<>();
+    /**
+     * 按AIMD在[minLimit, 上限]之间调整：响应慢于latencyThresholdMillis或返回5xx时按backoffRatio缩小，
+     * 并发接近当前上限且响应正常时加1
+     */
+    private boolean adaptive;
+    private int minLimit = 1;
+    private double backoffRatio = 0.9;
+    private long latencyThresholdMillis = 500;
+    /**
+     * 拒绝请求时的Retry-After
+     */
+    private int retryAfterSeconds = 1;
+
+    public static LimitOptions fromSystemProperties() {
+        LimitOptions options = new LimitOptions()
+                .setGlobalMaxConcurrency(Integer.getInteger(PREFIX + ".global", 0))
+                .setAdaptive(Boolean.getBoolean(PREFIX + ".adaptive"))
+                .setMinLimit(Integer.getInteger(PREFIX + ".min", 1))
+                .setBackoffRatio(Double.parseDouble(System.getProperty(PREFIX + ".backoff", "0.9")))
+                .setLatencyThresholdMillis(Long.getLong(PREFIX + ".latency-threshold-ms", 500))
+                .setRetryAfterSeconds(Integer.getInteger(PREFIX + ".retry-after", 1));
+        String routes = System.getProperty(PREFIX + ".routes", "");
+        for (String entry : routes.split(",")) {
+            int eq = entry.lastIndexOf('=');
+            if (eq > 0) {
+                options.routeLimits.put(entry.substring(0, eq).trim(), Integer.parseInt(entry.substring(eq + 1).trim()));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * @return 未设置全局上限时为null
+     */
+    public ConcurrencyLimiter newGlobalLimiter() {
+        return globalMaxConcurrency > 0 ? newLimiter(globalMaxConcurrency) : null;
+    }
+
+    /**
+     * @param declared 注解中声明的上限，小于等于0时不限制
+     * @param global   所有路由共享的全局限制，可以为null
+     * @return 路由和全局都不限制时为null
+     */
+    public Admission newAdmission(String path, String method, int declared, ConcurrencyLimiter global) {
+        int maxLimit = routeLimits.getOrDefault(path, declared);
+        ConcurrencyLimiter routeLimiter = maxLimit > 0 ? newLimiter(maxLimit) : null;
+        if (routeLimiter == null && global == null) {
+            return null;
+        }
+        return new Admission(path, method, routeLimiter, global, retryAfterSeconds);
+    }
+
+    private ConcurrencyLimiter newLimiter(int maxLimit) {
+        return new ConcurrencyLimiter(maxLimit, adaptive ? Math.min(minLimit, maxLimit) : maxLimit,
+                backoffRatio, latencyThresholdMillis * 1_000_000);
+    }
+}
@@ -0,0 +1,136 @@
+package top.nintha.veladder.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * HdrHistogram风格的对数线性直方图，单位纳秒。
+ * <p>
+ * 每个2的幂区间再等分为8个子桶，相对误差不超过12.5%，覆盖0到约2^41纳秒（约36分钟）。
+ * 计数按线程分散到多个条带，各event loop线程写入不同的条带，记录一次只需几次无竞争的原子加法；
+ * 条带在线程首次写入时才分配，读取时合并所有条带
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+    private static final int COUNT = BUCKETS;
+    private static final int SUM = BUCKETS + 1;
+    private static final int STRIPES = stripes();
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    private static int stripes() {
+        int n = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        return Math.min(n, 64);
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        AtomicLongArray stripe = stripe();
+        stripe.incrementAndGet(index(value));
+        stripe.incrementAndGet(COUNT);
+        stripe.addAndGet(SUM, value);
+    }
+
+    private AtomicLongArray stripe() {
+        long id = Thread.currentThread().getId();
+        int i = (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPES - 1);
+        AtomicLongArray stripe = stripes.get(i);
+        if (stripe == null) {
+            stripes.compareAndSet(i, null, new AtomicLongArray(BUCKETS + 2));
+            stripe = stripes.get(i);
+        }
+        return stripe;
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * 桶内的最大值
+     */
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((long) (SUB_BUCKETS + sub) << shift) + (1L << shift) - 1;
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        long sum = 0;
+        for (int s = 0; s < STRIPES; s++) {
+            AtomicLongArray stripe = stripes.get(s);
+            if (stripe == null) {
+                continue;
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += stripe.get(i);
+            }
+            count += stripe.get(COUNT);
+            sum += stripe.get(SUM);
+        }
+        return new Snapshot(counts, count, sum);
+    }
+
+    /**
+     * 合并后的只读快照，各条带分别读取，与并发写入之间不保证严格一致
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+
+        private Snapshot(long[] counts, long count, long sum) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        /**
+         * @param quantile 0到1之间
+         * @return 纳秒，没有数据时返回0
+         */
+        public long valueAtQuantile(double quantile) {
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return highestValue(i);
+                }
+            }
+            return highestValue(counts.length - 1);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package top.nintha.veladder.metrics;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.RoutingContext;
+import top.nintha.veladder.cache.ResponseCache;
+import top.nintha.veladder.http.CompressionHandler;
+import top.nintha.veladder.limit.Admission;
+import top.nintha.veladder.limit.ConcurrencyLimiter;
+
+import java.util.List;
+
+/**
+ * 以Prometheus文本格式输出全部路由的指标，耗时按阶段输出为summary，另外输出各路由响应缓存的命中情况和并发限制的拒绝次数
+ */
+public class PrometheusHandler implements Handler<RoutingContext> {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final List<RouteMetrics> metrics;
+    private final List<ResponseCache> caches;
+    private final List<Admission> admissions;
+
+    public PrometheusHandler(List<RouteMetrics> metrics, List<ResponseCache> caches, List<Admission> admissions) {
+        this.metrics = metrics;
+        this.caches = caches;
+        this.admissions = admissions;
+    }
+
+    @Override
+    public void handle(RoutingContext ctx) {
+        ctx.response().putHeader(HttpHeaders.CONTENT_TYPE, "text/plain; version=0.0.4; charset=utf-8");
+        ctx.response().end(CompressionHandler.compress(ctx, Buffer.buffer(render())));
+    }
+
+    public String render() {
+        StringBuilder sb = new StringBuilder(256 + metrics.size() * 2048);
+        header(sb, "veladder_requests_total", "counter", "Requests dispatched to the route");
+        for (RouteMetrics m : metrics) {
+            sample(sb, "veladder_requests_total", m, null, null, m.getRequests());
+        }
+        header(sb, "veladder_requests_in_flight", "gauge", "Requests currently being handled by the route");
+        for (RouteMetrics m : metrics) {
+            sample(sb, "veladder_requests_in_flight", m, null, null, m.getInFlight());
+        }
+        header(sb, "veladder_responses_total", "counter", "Responses by status class");
+        for (RouteMetrics m : metrics) {
+            for (int statusClass = 1; statusClass <= 5; statusClass++) {
+                sample(sb, "veladder_responses_total", m, "status", statusClass + "xx", m.getResponses(statusClass));
+            }
+        }
+        header(sb, "veladder_request_duration_seconds", "summary", "Request latency by phase");
+        for (RouteMetrics m : metrics) {
+            for (RouteMetrics.Phase phase : RouteMetrics.Phase.values()) {
+                LatencyHistogram.Snapshot snapshot = m.getLatency(phase).snapshot();
+                String labels = labels(m, "phase", phase.label());
+                for (double q : QUANTILES) {
+                    sb.append("veladder_request_duration_seconds{").append(labels).append(",quantile=\"").append(q).append("\"} ")
+                            .append(snapshot.valueAtQuantile(q) / NANOS_PER_SECOND).append('\n');
+                }
+                sb.append("veladder_request_duration_seconds_sum{").append(labels).append("} ")
+                        .append(snapshot.getSum() / NANOS_PER_SECOND).append('\n');
+                sb.append("veladder_request_duration_seconds_count{").append(labels).append("} ")
+                        .append(snapshot.getCount()).append('\n');
+            }
+        }
+        if (!caches.isEmpty()) {
+            renderCaches(sb);
+        }
+        if (!admissions.isEmpty()) {
+            renderAdmissions(sb);
+        }
+        return sb.toString();
+    }
+
+    private void renderCaches(StringBuilder sb) {
+        header(sb, "veladder_cache_requests_total", "counter", "Response cache lookups by result");
+        for (ResponseCache cache : caches) {
+            String labels = labels(cache.getRoute(), cache.getMethod());
+            sb.append("veladder_cache_requests_total{").append(labels).append(",result=\"hit\"} ").append(cache.getHits()).append('\n');
+            sb.append("veladder_cache_requests_total{").append(labels).append(",result=\"miss\"} ").append(cache.getMisses()).append('\n');
+            sb.append("veladder_cache_requests_total{").append(labels).append(",result=\"coalesced\"} ").append(cache.getCoalesced()).append('\n');
+        }
+        header(sb, "veladder_cache_evictions_total", "counter", "Response cache evictions by size or expiry");
+        for (ResponseCache cache : caches) {
+            sb.append("veladder_cache_evictions_total{").append(labels(cache.getRoute(), cache.getMethod())).append("} ").append(cache.getEvictions()).append('\n');
+        }
+        header(sb, "veladder_cache_entries", "gauge", "Response cache entries");
+        for (ResponseCache cache : caches) {
+            sb.append("veladder_cache_entries{").append(labels(cache.getRoute(), cache.getMethod())).append("} ").append(cache.getEntries()).append('\n');
+        }
+    }
+
+    private void renderAdmissions(StringBuilder sb) {
+        header(sb, "veladder_shed_total", "counter", "Requests rejected by the route concurrency limit");
+        for (Admission admission : admissions) {
+            if (admission.getRouteLimiter() != null) {
+                sb.append("veladder_shed_total{").append(labels(admission.getRoute(), admission.getMethod())).append("} ")
+                        .append(admission.getRouteLimiter().getShed()).append('\n');
+            }
+        }
+        header(sb, "veladder_concurrency_limit", "gauge", "Current route concurrency limit");
+        for (Admission admission : admissions) {
+            if (admission.getRouteLimiter() != null) {
+                sb.append("veladder_concurrency_limit{").append(labels(admission.getRoute(), admission.getMethod())).append("} ")
+                        .append(admission.getRouteLimiter().getLimit()).append('\n');
+            }
+        }
+        // 全局限制由全部路由共享，只输出一次
+        ConcurrencyLimiter global = admissions.get(0).getGlobalLimiter();
+        if (global != null) {
+            header(sb, "veladder_global_shed_total", "counter", "Requests rejected by the global concurrency limit");
+            sb.append("veladder_global_shed_total ").append(global.getShed()).append('\n');
+            header(sb, "veladder_global_concurrency_limit", "gauge", "Current global concurrency limit");
+            sb.append("veladder_global_concurrency_limit ").append(global.getLimit()).append('\n');
+            header(sb, "veladder_global_in_flight", "gauge", "Requests currently admitted by the global limit");
+            sb.append("veladder_global_in_flight ").append(global.getInFlight()).append('\n');
+        }
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, RouteMetrics m, String labelName, String labelValue, long value) {
+        sb.append(name).append('{').append(labels(m, labelName, labelValue)).append("} ").append(value).append('\n');
+    }
+
+    private static String labels(String route, String method) {
+        return "route=\"" + escape(route) + "\",method=\"" + escape(method) + '"';
+    }
+
+    private static String labels(RouteMetrics m, String labelName, String labelValue) {
+        StringBuilder sb = new StringBuilder(labels(m.getRoute(), m.getMethod()));
+        if (labelName != null) {
+            sb.append(',').append(labelName).append("=\"").append(escape(labelValue)).append('"');
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
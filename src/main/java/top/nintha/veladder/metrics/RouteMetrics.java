@@ -0,0 +1,132 @@
+package top.nintha.veladder.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个路由的请求数、处理中请求数、按状态码类别的响应数，以及各阶段的耗时分布。
+ * 计数使用{@link LongAdder}，耗时使用{@link LatencyHistogram}，写入都不加锁
+ */
+public final class RouteMetrics {
+    public static final String PROPERTY = "veladder.metrics";
+    public static final String PATH_PROPERTY = "veladder.metrics.path";
+
+    /**
+     * 请求处理的阶段
+     */
+    public enum Phase {
+        /**
+         * 参数绑定
+         */
+        BINDING,
+        /**
+         * controller方法调用，阻塞接口不含排队时间
+         */
+        INVOCATION,
+        /**
+         * 订阅Single到结果返回
+         */
+        ASYNC,
+        /**
+         * 返回值编码
+         */
+        SERIALIZATION,
+        /**
+         * 进入路由处理器到响应结束
+         */
+        TOTAL;
+
+        private final String label = name().toLowerCase(Locale.ROOT);
+
+        public String label() {
+            return label;
+        }
+    }
+
+    private final String route;
+    private final String method;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    /**
+     * 1xx到5xx
+     */
+    private final LongAdder[] statusClasses = new LongAdder[5];
+    private final LatencyHistogram[] phases = new LatencyHistogram[Phase.values().length];
+
+    /**
+     * @param route  路由路径
+     * @param method 绑定的HttpMethod，全部时为*
+     */
+    public RouteMetrics(String route, String method) {
+        this.route = route;
+        this.method = method;
+        for (int i = 0; i < statusClasses.length; i++) {
+            statusClasses[i] = new LongAdder();
+        }
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new LatencyHistogram();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    public static String path() {
+        return System.getProperty(PATH_PROPERTY, "/metrics");
+    }
+
+    /**
+     * 请求开始
+     *
+     * @return 开始时间，传给{@link #end(int, long)}
+     */
+    public long start() {
+        requests.increment();
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * 响应结束或连接关闭
+     */
+    public void end(int statusCode, long start) {
+        inFlight.decrement();
+        int statusClass = statusCode / 100;
+        if (statusClass >= 1 && statusClass <= 5) {
+            statusClasses[statusClass - 1].increment();
+        }
+        phases[Phase.TOTAL.ordinal()].record(System.nanoTime() - start);
+    }
+
+    public void record(Phase phase, long nanos) {
+        phases[phase.ordinal()].record(nanos);
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    /**
+     * @param statusClass 1到5
+     */
+    public long getResponses(int statusClass) {
+        return statusClasses[statusClass - 1].sum();
+    }
+
+    public LatencyHistogram getLatency(Phase phase) {
+        return phases[phase.ordinal()];
+    }
+}
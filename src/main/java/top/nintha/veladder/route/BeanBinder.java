@@ -0,0 +1,166 @@
+package top.nintha.veladder.route;
+
+import io.vertx.core.MultiMap;
+import top.nintha.veladder.converter.ValueConverters;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 实体对象绑定器，每个类只解析一次构造器、字段setter和字段绑定器，
+ * 请求时只遍历请求中实际存在的参数。
+ * <p>
+ * 支持父类字段，忽略static/transient/final字段；嵌套对象通过 {@code address.city} 形式的参数名绑定
+ */
+final class BeanBinder {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final Map<Class<?>, BeanBinder> CACHE = new HashMap<>();
+
+    private final Class<?> beanType;
+    /**
+     * 与请求参数一样，属性名不区分大小写
+     */
+    private final Map<String, Property> properties = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private MethodHandle constructor;
+
+    private BeanBinder(Class<?> beanType) {
+        this.beanType = beanType;
+    }
+
+    /**
+     * 获取实体类的绑定器，只在路由编译时调用；先放入缓存再解析字段，以支持相互引用的嵌套类型
+     */
+    static synchronized BeanBinder of(Class<?> beanType) throws ReflectiveOperationException {
+        BeanBinder binder = CACHE.get(beanType);
+        if (binder == null) {
+            binder = new BeanBinder(beanType);
+            CACHE.put(beanType, binder);
+            try {
+                binder.resolve();
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                CACHE.remove(beanType);
+                throw e;
+            }
+        }
+        return binder;
+    }
+
+    private void resolve() throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(beanType, LOOKUP);
+        constructor = lookup.findConstructor(beanType, MethodType.methodType(void.class))
+                .asType(MethodType.methodType(Object.class));
+
+        // 子类字段优先，同名的父类字段被忽略
+        for (Class<?> c = beanType; c != null && c != Object.class; c = c.getSuperclass()) {
+            MethodHandles.Lookup fieldLookup = MethodHandles.privateLookupIn(c, LOOKUP);
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || Modifier.isFinal(modifiers)
+                        || field.isSynthetic() || properties.containsKey(field.getName())) {
+                    continue;
+                }
+                Property property = resolveProperty(fieldLookup, field);
+                if (property != null) {
+                    properties.put(field.getName(), property);
+                }
+            }
+        }
+    }
+
+    private Property resolveProperty(MethodHandles.Lookup lookup, Field field) throws ReflectiveOperationException {
+        Class<?> fieldType = field.getType();
+        MethodHandle setter = lookup.unreflectSetter(field)
+                .asType(MethodType.methodType(void.class, Object.class, Object.class));
+        if (ParamBinders.isSimpleTypeOrArrayOrCollection(fieldType)) {
+            ParamBinders.ValueBinder valueBinder = ParamBinders.valueBinder(fieldType, field.getGenericType());
+            return new Property(setter, null, valueBinder, null);
+        }
+        if (isNestedBeanType(fieldType)) {
+            MethodHandle getter = lookup.unreflectGetter(field)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            return new Property(setter, getter, null, of(fieldType));
+        }
+        return null;
+    }
+
+    /**
+     * 只有可以无参实例化的非JDK类才作为嵌套对象处理
+     */
+    private static boolean isNestedBeanType(Class<?> type) {
+        if (type.isPrimitive() || type.isInterface() || type.isEnum() || Modifier.isAbstract(type.getModifiers())
+                || Map.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type)) {
+            return false;
+        }
+        String name = type.getName();
+        if (name.startsWith("java.") || name.startsWith("javax.")) {
+            return false;
+        }
+        try {
+            type.getDeclaredConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    Object bind(MultiMap params) throws Throwable {
+        Object bean = (Object) constructor.invokeExact();
+        for (String name : params.names()) {
+            apply(bean, params, name, 0);
+        }
+        return bean;
+    }
+
+    /**
+     * 将单个参数写入实体对象
+     *
+     * @param key    完整参数名
+     * @param offset 当前层级属性名在key中的起始位置
+     */
+    private void apply(Object bean, MultiMap params, String key, int offset) throws Throwable {
+        int dot = key.indexOf('.', offset);
+        String propertyName = dot < 0 ? (offset == 0 ? key : key.substring(offset)) : key.substring(offset, dot);
+        Property property = properties.get(propertyName);
+        if (property == null) {
+            return;
+        }
+
+        if (dot < 0) {
+            if (property.valueBinder != null) {
+                Object value = property.valueBinder.bind(params, key);
+                // null值保持字段默认值，同时避免基础类型拆箱失败
+                if (value != null) {
+                    property.setter.invokeExact(bean, value);
+                }
+            }
+        } else if (property.nested != null) {
+            Object nestedBean = (Object) property.getter.invokeExact(bean);
+            if (nestedBean == null) {
+                nestedBean = (Object) property.nested.constructor.invokeExact();
+                property.setter.invokeExact(bean, nestedBean);
+            }
+            property.nested.apply(nestedBean, params, key, dot + 1);
+        }
+    }
+
+    private static final class Property {
+        private final MethodHandle setter;
+        private final MethodHandle getter;
+        private final ParamBinders.ValueBinder valueBinder;
+        private final BeanBinder nested;
+
+        private Property(MethodHandle setter, MethodHandle getter, ParamBinders.ValueBinder valueBinder, BeanBinder nested) {
+            this.setter = setter;
+            this.getter = getter;
+            this.valueBinder = valueBinder;
+            this.nested = nested;
+        }
+    }
+}
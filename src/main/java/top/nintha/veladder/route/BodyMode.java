@@ -0,0 +1,57 @@
+package top.nintha.veladder.route;
+
+import io.vertx.core.Handler;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.BodyHandler;
+
+/**
+ * 路由的请求体处理方式，在编译时根据方法签名决定
+ */
+public enum BodyMode {
+    /**
+     * 不读取请求体，例如只绑定查询参数的GET接口
+     */
+    NONE(0),
+    /**
+     * 缓存完整请求体，用于{@link top.nintha.veladder.annotations.RequestBody}及表单参数，不处理文件上传
+     */
+    BUFFERED(10 * 1024 * 1024),
+    /**
+     * 缓存请求体并将上传文件写入临时目录
+     */
+    UPLOAD(100 * 1024 * 1024),
+    /**
+     * 不缓存，以ReadStream/Flowable的形式将原始请求体或multipart的各个part交给controller
+     */
+    STREAM(-1);
+
+    private final long defaultLimit;
+
+    BodyMode(long defaultLimit) {
+        this.defaultLimit = defaultLimit;
+    }
+
+    /**
+     * 创建当前模式对应的处理器
+     *
+     * @param bodyLimit 请求体大小上限，小于0时使用模式的默认值
+     * @return NONE模式返回null
+     */
+    public Handler<RoutingContext> createHandler(long bodyLimit) {
+        long limit = bodyLimit < 0 ? defaultLimit : bodyLimit;
+        switch (this) {
+            case BUFFERED:
+                return BodyHandler.create(false).setBodyLimit(limit);
+            case UPLOAD:
+                return BodyHandler.create(true).setBodyLimit(limit);
+            case STREAM:
+                // 在进入controller之前暂停读取，由controller决定何时消费请求体
+                return ctx -> {
+                    ctx.request().pause();
+                    ctx.next();
+                };
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package top.nintha.veladder.route;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import top.nintha.veladder.annotations.StreamFormat;
+import top.nintha.veladder.cache.ResponseCache;
+import top.nintha.veladder.limit.Admission;
+import top.nintha.veladder.metrics.RouteMetrics;
+import top.nintha.veladder.worker.BlockingDetector;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * 启动时编译完成的路由，请求处理过程只读取其中的预计算结果
+ */
+@Getter
+public class CompiledRoute {
+    private final Object controller;
+    private final Method method;
+    private final String path;
+    /**
+     * 为空时绑定全部HttpMethod
+     */
+    private final List<String> httpMethods;
+    private final String[] paramNames;
+    private final ParamBinder[] binders;
+    private final RouteInvoker invoker;
+    private final BodyMode bodyMode;
+    /**
+     * 请求体大小上限，小于0时使用{@link BodyMode}的默认值
+     */
+    private final long bodyLimit;
+    private final JsonResponseEncoder encoder;
+    private final ResultType resultType;
+    /**
+     * 没有响应内容：void、Completable或类型参数为Void的异步结果
+     */
+    @Getter(AccessLevel.NONE)
+    private final boolean voidResult;
+    /**
+     * 返回Flowable时的输出格式
+     */
+    private final StreamFormat streamFormat;
+    /**
+     * 是否计算ETag并处理If-None-Match
+     */
+    private final boolean etag;
+    /**
+     * 为null时不设置Cache-Control
+     */
+    private final String cacheControl;
+    /**
+     * 返回异步结果时的超时时间，小于等于0时不限制
+     */
+    private final long timeoutMillis;
+    /**
+     * 阻塞接口使用的worker池名称，为null时在event loop上直接调用
+     */
+    private final String blockingPool;
+    /**
+     * 未开启指标统计时为null
+     */
+    private final RouteMetrics metrics;
+    /**
+     * event loop阻塞检测，阻塞接口或未开启检测时为null
+     */
+    private final BlockingDetector.Probe blockingProbe;
+    /**
+     * 未标注{@link top.nintha.veladder.annotations.Cacheable}时为null
+     */
+    private final ResponseCache cache;
+    /**
+     * 未设置并发上限时为null
+     */
+    private final Admission admission;
+
+    CompiledRoute(Object controller, Method method, String path, List<String> httpMethods,
+                  String[] paramNames, ParamBinder[] binders, RouteInvoker invoker, BodyMode bodyMode, long bodyLimit,
+                  StreamFormat streamFormat, boolean etag, String cacheControl, long timeoutMillis, String blockingPool, RouteMetrics metrics,
+                  BlockingDetector.Probe blockingProbe, ResponseCache cache, Admission admission) {
+        this.controller = controller;
+        this.method = method;
+        this.path = path;
+        this.httpMethods = httpMethods;
+        this.paramNames = paramNames;
+        this.binders = binders;
+        this.invoker = invoker;
+        this.bodyMode = bodyMode;
+        this.bodyLimit = bodyLimit;
+        this.encoder = JsonResponseEncoder.forMethod(method);
+        this.resultType = ResultType.of(method.getReturnType());
+        this.voidResult = resultType == ResultType.VOID || resultType == ResultType.COMPLETABLE
+                || (resultType.isAsync() && JsonResponseEncoder.valueType(method.getGenericReturnType()) == Void.class);
+        this.streamFormat = streamFormat;
+        this.etag = etag;
+        this.cacheControl = cacheControl;
+        this.timeoutMillis = timeoutMillis;
+        this.blockingPool = blockingPool;
+        this.metrics = metrics;
+        this.blockingProbe = blockingProbe;
+        this.cache = cache;
+        this.admission = admission;
+    }
+
+    public boolean isBlocking() {
+        return blockingPool != null;
+    }
+
+    public boolean isVoid() {
+        return voidResult;
+    }
+
+    @Override
+    public String toString() {
+        return method.getDeclaringClass().getName() + "::" + method.getName();
+    }
+}
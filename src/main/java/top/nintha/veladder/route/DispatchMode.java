@@ -0,0 +1,25 @@
+package top.nintha.veladder.route;
+
+/**
+ * controller方法的调用方式
+ */
+public enum DispatchMode {
+    /**
+     * 通过已绑定的MethodHandle调用，参数经过Object[]传递
+     */
+    METHOD_HANDLE,
+    /**
+     * 通过javassist为每个方法生成调用类，直接调用controller方法
+     */
+    GENERATED;
+
+    public static final String PROPERTY = "veladder.dispatch";
+
+    /**
+     * 从系统属性读取，默认{@link #METHOD_HANDLE}
+     */
+    public static DispatchMode fromSystemProperty() {
+        String value = System.getProperty(PROPERTY);
+        return value == null || value.isBlank() ? METHOD_HANDLE : valueOf(value.trim().toUpperCase());
+    }
+}
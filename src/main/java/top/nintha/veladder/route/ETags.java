@@ -0,0 +1,52 @@
+package top.nintha.veladder.route;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * 基于响应内容的ETag计算和If-None-Match匹配
+ */
+final class ETags {
+    /**
+     * 非加密哈希，只用于判断内容是否变化
+     */
+    private static final HashFunction HASH = Hashing.farmHashFingerprint64();
+
+    private ETags() {
+    }
+
+    /**
+     * 压缩后的内容是不同的表示，强ETag带上编码，例如 "1a2b-gzip"
+     *
+     * @param encoding 响应的Content-Encoding，不压缩时为null
+     */
+    static String compute(Buffer body, String encoding) {
+        String hash = HASH.hashBytes(body.getByteBuf().nioBuffer()).toString();
+        return '"' + (encoding == null ? hash : hash + '-' + encoding) + '"';
+    }
+
+    /**
+     * If-None-Match使用弱比较，忽略W/前缀
+     *
+     * @param ifNoneMatch 请求头的值，可以包含多个ETag或*
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
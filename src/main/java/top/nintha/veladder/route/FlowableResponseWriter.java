@@ -0,0 +1,229 @@
+package top.nintha.veladder.route;
+
+import io.reactivex.FlowableSubscriber;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Subscription;
+import top.nintha.veladder.annotations.StreamFormat;
+import top.nintha.veladder.http.CompressedStream;
+import top.nintha.veladder.http.CompressionHandler;
+
+import java.util.function.Consumer;
+
+/**
+ * 将Flowable的元素逐个编码写入分块响应。
+ * <p>
+ * 按批向上游请求元素，响应写队列满时暂停请求，直到drainHandler触发，保证内存占用与结果数量无关。
+ * 所有写操作都切换到请求所在的context上执行，开启压缩时每个元素写入后同步刷新。
+ * 分块模式和流的Content-Type在第一个元素或完成时才设置，之前发生的错误按普通的JSON错误返回
+ */
+@Slf4j
+class FlowableResponseWriter implements FlowableSubscriber<Object> {
+    private static final int BATCH_SIZE = 16;
+    private static final Buffer NEW_LINE = Buffer.buffer("\n");
+
+    private final RoutingContext ctx;
+    private final HttpServerResponse response;
+    private final Context context;
+    private final StreamFormat format;
+    private final JsonResponseEncoder encoder;
+    private final Consumer<Throwable> onError;
+
+    private Subscription subscription;
+    /**
+     * 不压缩时为null
+     */
+    private CompressedStream compressed;
+    /**
+     * 已请求但尚未收到的元素数量，只在context线程上读写
+     */
+    private long outstanding;
+    private boolean started;
+    private boolean first = true;
+    private boolean done;
+
+    FlowableResponseWriter(RoutingContext ctx, StreamFormat format, JsonResponseEncoder encoder, Consumer<Throwable> onError) {
+        this.ctx = ctx;
+        this.response = ctx.response();
+        this.context = ctx.vertx().getOrCreateContext();
+        this.format = format;
+        this.encoder = encoder;
+        this.onError = onError;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        onContext(() -> {
+            subscription = s;
+            // 客户端断开后取消上游，不覆盖RoutingContext自己注册的closeHandler
+            ctx.addEndHandler(ar -> {
+                if (ar.failed()) {
+                    cancel();
+                }
+            });
+            response.drainHandler(v -> requestMore());
+            requestMore();
+        });
+    }
+
+    @Override
+    public void onNext(Object item) {
+        onContext(() -> {
+            if (done) {
+                return;
+            }
+            try {
+                write(item);
+            } catch (Exception e) {
+                subscription.cancel();
+                fail(e);
+                return;
+            }
+            outstanding--;
+            if (!response.writeQueueFull()) {
+                requestMore();
+            }
+        });
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        onContext(() -> fail(t));
+    }
+
+    @Override
+    public void onComplete() {
+        onContext(() -> {
+            if (done) {
+                return;
+            }
+            done = true;
+            begin();
+            Buffer last = format == StreamFormat.JSON_ARRAY ? Buffer.buffer(first ? "[]" : "]") : null;
+            if (compressed != null) {
+                response.end(compressed.finish(last));
+            } else if (last != null) {
+                response.end(last);
+            } else {
+                response.end();
+            }
+        });
+    }
+
+    /**
+     * 先编码再开始响应，第一个元素编码失败时仍然可以返回JSON错误
+     */
+    private void write(Object item) throws Exception {
+        Buffer chunk;
+        switch (format) {
+            case NDJSON:
+                chunk = encoder.encodeJson(item).appendBuffer(NEW_LINE);
+                break;
+            case SSE:
+                chunk = sseEvent(item);
+                break;
+            default:
+                Buffer element = encoder.encodeJson(item);
+                chunk = Buffer.buffer(element.length() + 1).appendString(first ? "[" : ",").appendBuffer(element);
+        }
+        begin();
+        send(chunk);
+        first = false;
+    }
+
+    private void begin() {
+        if (started) {
+            return;
+        }
+        started = true;
+        response.setChunked(true);
+        switch (format) {
+            case NDJSON:
+                response.putHeader(HttpHeaders.CONTENT_TYPE, "application/x-ndjson;charset=UTF-8");
+                break;
+            case SSE:
+                response.putHeader(HttpHeaders.CONTENT_TYPE, "text/event-stream;charset=UTF-8");
+                response.putHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+                break;
+            default:
+                response.putHeader(HttpHeaders.CONTENT_TYPE, "application/json;charset=UTF-8");
+        }
+        compressed = CompressionHandler.stream(ctx);
+    }
+
+    private void send(Buffer chunk) {
+        if (compressed == null) {
+            response.write(chunk);
+            return;
+        }
+        Buffer out = compressed.write(chunk);
+        if (out.length() > 0) {
+            response.write(out);
+        }
+    }
+
+    /**
+     * 字符串按原文作为data，多行时拆分为多个data字段，其余类型编码为JSON
+     */
+    private Buffer sseEvent(Object item) throws Exception {
+        if (!(item instanceof CharSequence)) {
+            return Buffer.buffer("data: ").appendBuffer(encoder.encodeJson(item)).appendString("\n\n");
+        }
+        Buffer event = Buffer.buffer();
+        for (String line : item.toString().split("\r?\n", -1)) {
+            event.appendString("data: ").appendString(line).appendString("\n");
+        }
+        return event.appendString("\n");
+    }
+
+    private void requestMore() {
+        if (!done && outstanding == 0) {
+            outstanding = BATCH_SIZE;
+            subscription.request(BATCH_SIZE);
+        }
+    }
+
+    private void cancel() {
+        if (!done) {
+            done = true;
+            subscription.cancel();
+            closeCompressed();
+            log.info("stream cancelled by client, {}", ctx.request().path());
+        }
+    }
+
+    private void fail(Throwable t) {
+        if (done) {
+            return;
+        }
+        done = true;
+        closeCompressed();
+        if (!response.headWritten()) {
+            response.setStatusCode(500);
+            onError.accept(t);
+        } else {
+            // 响应头已发出，无法再返回错误信息，只能中断连接让客户端感知
+            log.error("stream error, {}", ctx.request().path(), t);
+            response.reset();
+        }
+    }
+
+    private void closeCompressed() {
+        if (compressed != null) {
+            compressed.close();
+        }
+    }
+
+    private void onContext(Runnable action) {
+        if (Vertx.currentContext() == context) {
+            action.run();
+        } else {
+            context.runOnContext(v -> action.run());
+        }
+    }
+}
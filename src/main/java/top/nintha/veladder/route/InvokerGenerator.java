@@ -0,0 +1,98 @@
+package top.nintha.veladder.route;
+
+import com.google.common.primitives.Primitives;
+import javassist.*;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * 通过javassist为controller方法生成{@link RouteInvoker}实现类，
+ * 生成的代码形如 {@code return controller.echo((String) b0.bind(ctx), b1.bindInt(ctx), (RoutingContext) b2.bind(ctx));}
+ * 参数不经过Object[]，基础类型参数通过{@link PrimitiveBinder}直接解析不装箱，JIT可以直接内联到controller方法
+ */
+@Slf4j
+class InvokerGenerator {
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    private final ClassPool classPool;
+
+    InvokerGenerator() {
+        classPool = new ClassPool(true);
+        classPool.insertClassPath(new ClassClassPath(RouteInvoker.class));
+    }
+
+    RouteInvoker generate(Object controller, Method method, ParamBinder[] binders) throws ReflectiveOperationException {
+        Class<?> controllerClass = controller.getClass();
+        // 生成类需要和controller位于同一个包，才能通过controller的Lookup定义
+        String className = String.format("%s$$Invoker$%s$%d", controllerClass.getName(), method.getName(), SEQ.incrementAndGet());
+        try {
+            classPool.insertClassPath(new ClassClassPath(controllerClass));
+            CtClass cc = classPool.makeClass(className);
+            cc.setModifiers(Modifier.PUBLIC | Modifier.FINAL);
+            cc.addInterface(classPool.get(RouteInvoker.class.getName()));
+
+            String controllerType = controllerClass.getName();
+            String binderType = ParamBinder.class.getName();
+            cc.addField(CtField.make(String.format("private final %s target;", controllerType), cc));
+            StringBuilder constructor = new StringBuilder("public ").append(cc.getSimpleName())
+                    .append("(Object controller, ").append(binderType).append("[] binders) {")
+                    .append("this.target = (").append(controllerType).append(") controller;");
+            Class<?>[] paramTypes = method.getParameterTypes();
+            for (int i = 0; i < binders.length; i++) {
+                // 基础类型绑定器按具体类型声明字段，直接调用bindXxx
+                String fieldType = binders[i] instanceof PrimitiveBinder ? PrimitiveBinder.class.getName() : binderType;
+                cc.addField(CtField.make(String.format("private final %s b%d;", fieldType, i), cc));
+                constructor.append(String.format("this.b%d = (%s) binders[%d];", i, fieldType, i));
+            }
+            cc.addConstructor(CtNewConstructor.make(constructor.append('}').toString(), cc));
+            cc.addMethod(CtNewMethod.make(invokeSource(method, "invoke(io.vertx.ext.web.RoutingContext ctx)", i -> binders[i] instanceof PrimitiveBinder
+                    ? "this.b" + i + "." + ((PrimitiveBinder) binders[i]).accessor() + "($1)"
+                    : argumentSource(paramTypes[i], "this.b" + i + ".bind($1)")), cc));
+            cc.addMethod(CtNewMethod.make(invokeSource(method, "invokeWithArgs(Object[] args)", i -> argumentSource(paramTypes[i], "$1[" + i + "]")), cc));
+
+            Class<?> invokerClass = cc.toClass(controllerClass);
+            cc.detach();
+            return (RouteInvoker) invokerClass.getConstructor(Object.class, ParamBinder[].class).newInstance(controller, binders);
+        } catch (NotFoundException | CannotCompileException e) {
+            throw new ReflectiveOperationException("failed to generate invoker for " + controllerClass.getName() + "::" + method.getName(), e);
+        }
+    }
+
+    /**
+     * @param signature 方法名和形参
+     * @param argument  第i个实参的表达式，类型与形参一致
+     */
+    private String invokeSource(Method method, String signature, IntFunction<String> argument) {
+        Class<?>[] paramTypes = method.getParameterTypes();
+        StringBuilder call = new StringBuilder("this.target.").append(method.getName()).append('(');
+        for (int i = 0; i < paramTypes.length; i++) {
+            if (i > 0) {
+                call.append(", ");
+            }
+            call.append(argument.apply(i));
+        }
+        call.append(')');
+
+        StringBuilder src = new StringBuilder("public Object ").append(signature).append(" throws Throwable {");
+        if (method.getReturnType() == void.class) {
+            src.append(call).append("; return null;");
+        } else {
+            src.append("return ($w) ").append(call).append(';');
+        }
+        return src.append('}').toString();
+    }
+
+    /**
+     * 将绑定器返回的Object转换为形参类型，基础类型需要拆箱
+     */
+    private String argumentSource(Class<?> paramType, String value) {
+        if (paramType.isPrimitive()) {
+            Class<?> wrapType = Primitives.wrap(paramType);
+            return String.format("((%s) %s).%sValue()", wrapType.getName(), value, paramType.getName());
+        }
+        return String.format("(%s) %s", paramType.getCanonicalName(), value);
+    }
+}
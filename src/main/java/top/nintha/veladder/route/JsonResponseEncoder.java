@@ -0,0 +1,110 @@
+package top.nintha.veladder.route;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.jackson.DatabindCodec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * 将返回值直接序列化到{@link Buffer}，避免先生成String再编码为UTF-8字节。
+ * ObjectWriter在路由编译时按返回类型解析，与Vert.x的{@link io.vertx.core.json.Json}共用同一个ObjectMapper
+ */
+public class JsonResponseEncoder {
+    private static final int MIN_SIZE_HINT = 256;
+    private static final int MAX_SIZE_HINT = 1024 * 1024;
+
+    private final ObjectWriter writer;
+    /**
+     * 按上一次的响应大小预分配，减少扩容复制，并发写入无需精确
+     */
+    private int sizeHint = MIN_SIZE_HINT;
+
+    JsonResponseEncoder(ObjectWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * 根据方法返回类型创建，{@code Single<T>}、{@code Flowable<T>}、{@code CompletionStage<T>}等按T解析
+     */
+    public static JsonResponseEncoder forMethod(Method method) {
+        return forType(valueType(method.getGenericReturnType()));
+    }
+
+    public static JsonResponseEncoder forType(Type valueType) {
+        ObjectMapper mapper = DatabindCodec.mapper();
+        JavaType javaType = mapper.getTypeFactory().constructType(valueType);
+        // 声明类型可能被子类替换时不能固定根序列化器，交由Jackson按运行时类型查找
+        boolean fixedType = javaType.isContainerType() || Modifier.isFinal(javaType.getRawClass().getModifiers());
+        return new JsonResponseEncoder(fixedType ? mapper.writerFor(javaType) : mapper.writer());
+    }
+
+    static Type valueType(Type returnType) {
+        if (returnType instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) returnType;
+            if (isWrapper(parameterizedType.getRawType())) {
+                return parameterizedType.getActualTypeArguments()[0];
+            }
+        }
+        return isWrapper(returnType) ? Object.class : returnType;
+    }
+
+    /**
+     * 异步结果或Flowable，实际内容为其类型参数
+     */
+    private static boolean isWrapper(Type type) {
+        if (!(type instanceof Class)) {
+            return false;
+        }
+        ResultType resultType = ResultType.of((Class<?>) type);
+        return resultType.isAsync() || resultType == ResultType.FLOWABLE;
+    }
+
+    /**
+     * 字符串按原文输出，其余类型编码为JSON
+     */
+    public Buffer encode(Object value) throws IOException {
+        if (value instanceof CharSequence) {
+            return Buffer.buffer(value.toString());
+        }
+        return encodeJson(value);
+    }
+
+    /**
+     * 总是编码为JSON，字符串也会加上引号
+     */
+    public Buffer encodeJson(Object value) throws IOException {
+        Buffer buffer = Buffer.buffer(sizeHint);
+        writer.writeValue(new BufferOutputStream(buffer), value);
+        sizeHint = Math.max(MIN_SIZE_HINT, Math.min(MAX_SIZE_HINT, buffer.length()));
+        return buffer;
+    }
+
+    /**
+     * Jackson使用线程内复用的字节缓冲区生成内容，分块追加到Buffer
+     */
+    private static final class BufferOutputStream extends OutputStream {
+        private final Buffer buffer;
+
+        private BufferOutputStream(Buffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) {
+            buffer.appendByte((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            buffer.appendBytes(b, off, len);
+        }
+    }
+}
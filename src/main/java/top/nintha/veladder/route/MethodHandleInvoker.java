@@ -0,0 +1,32 @@
+package top.nintha.veladder.route;
+
+import io.vertx.ext.web.RoutingContext;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * 遍历参数绑定器后通过签名为 (Object[])Object 的方法句柄调用
+ */
+class MethodHandleInvoker implements RouteInvoker {
+    private final ParamBinder[] binders;
+    private final MethodHandle handle;
+
+    MethodHandleInvoker(ParamBinder[] binders, MethodHandle handle) {
+        this.binders = binders;
+        this.handle = handle;
+    }
+
+    @Override
+    public Object invoke(RoutingContext ctx) throws Throwable {
+        Object[] argValues = new Object[binders.length];
+        for (int i = 0; i < binders.length; i++) {
+            argValues[i] = binders[i].bind(ctx);
+        }
+        return (Object) handle.invokeExact(argValues);
+    }
+
+    @Override
+    public Object invokeWithArgs(Object[] args) throws Throwable {
+        return (Object) handle.invokeExact(args);
+    }
+}
@@ -0,0 +1,12 @@
+package top.nintha.veladder.route;
+
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * 参数绑定器，启动时按方法形参预先解析生成，请求时只负责从上下文中取值
+ */
+@FunctionalInterface
+public interface ParamBinder {
+
+    Object bind(RoutingContext ctx) throws Throwable;
+}
@@ -0,0 +1,196 @@
+package top.nintha.veladder.route;
+
+import io.reactivex.Flowable;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpServerFileUpload;
+import io.vertx.core.json.Json;
+import io.vertx.ext.web.FileUpload;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.reactivex.FlowableHelper;
+import top.nintha.veladder.http.MultipartStream;
+import top.nintha.veladder.converter.ArrayConverter;
+import top.nintha.veladder.converter.ValueConverter;
+import top.nintha.veladder.converter.ValueConverters;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * 各类参数绑定器的工厂方法，所有反射查找都在创建绑定器时完成
+ */
+public final class ParamBinders {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private ParamBinders() {
+    }
+
+    /**
+     * 将请求体作为JSON解析为指定类型
+     */
+    public static ParamBinder body(Class<?> paramType) {
+        return ctx -> Json.decodeValue(ctx.getBodyAsString(), paramType);
+    }
+
+    public static ParamBinder context() {
+        return ctx -> ctx;
+    }
+
+    public static ParamBinder upload(String paramName) {
+        return ctx -> {
+            for (FileUpload upload : ctx.fileUploads()) {
+                if (upload.name().equals(paramName)) {
+                    return upload;
+                }
+            }
+            return null;
+        };
+    }
+
+    /**
+     * 是否为流式请求体参数，即 {@code ReadStream<Buffer>} 或 {@code Flowable<Buffer>}
+     */
+    public static boolean isBodyStream(Class<?> paramType) {
+        return paramType == ReadStream.class || paramType == Flowable.class;
+    }
+
+    /**
+     * 是否为multipart的part流参数，即 {@code ReadStream<HttpServerFileUpload>} 或 {@code Flowable<HttpServerFileUpload>}
+     */
+    public static boolean isMultipartStream(Type genericType) {
+        if (!(genericType instanceof ParameterizedType)) {
+            return false;
+        }
+        ParameterizedType parameterizedType = (ParameterizedType) genericType;
+        return isBodyStream((Class<?>) parameterizedType.getRawType())
+                && parameterizedType.getActualTypeArguments()[0] == HttpServerFileUpload.class;
+    }
+
+    /**
+     * 按顺序交出multipart请求中的文件part，part的内容直接从请求中读取，不写入临时文件
+     */
+    public static ParamBinder multipartStream(Class<?> paramType) {
+        if (paramType == Flowable.class) {
+            return ctx -> FlowableHelper.toFlowable(new MultipartStream(ctx.request()));
+        }
+        return ctx -> new MultipartStream(ctx.request());
+    }
+
+    /**
+     * 流式请求体，请求在进入controller前已暂停，由订阅方按需拉取
+     */
+    public static ParamBinder bodyStream(Class<?> paramType) {
+        if (paramType == Flowable.class) {
+            return ctx -> FlowableHelper.toFlowable(ctx.request());
+        }
+        return RoutingContext::request;
+    }
+
+    /**
+     * 根据参数类型选择简单类型、数组、集合或实体对象的绑定方式
+     *
+     * @param paramType   参数类型
+     * @param paramName   参数名称
+     * @param genericType 泛型化参数类型
+     */
+    public static ParamBinder forType(Class<?> paramType, String paramName, Type genericType) throws ReflectiveOperationException {
+        if (paramType.isPrimitive() && ValueConverters.isBuiltIn(paramType)) {
+            return new PrimitiveBinder(paramName, paramType);
+        }
+        if (isSimpleTypeOrArrayOrCollection(paramType)) {
+            ValueBinder binder = valueBinder(paramType, genericType);
+            return ctx -> binder.bind(ctx.request().params(), paramName);
+        }
+        BeanBinder binder = BeanBinder.of(paramType);
+        return ctx -> binder.bind(ctx.request().params());
+    }
+
+    /**
+     * 判断是否可以直接从请求参数中取值，否则按实体对象处理
+     */
+    public static boolean isSimpleTypeOrArrayOrCollection(Class<?> paramType) {
+        return paramType.isArray() || Collection.class.isAssignableFrom(paramType) || ValueConverters.supports(paramType);
+    }
+
+    /**
+     * 从请求参数中按名称取值的绑定器，实体对象的字段也复用此接口
+     */
+    @FunctionalInterface
+    interface ValueBinder {
+        Object bind(MultiMap params, String name) throws Throwable;
+    }
+
+    /**
+     * 解析简单类型以及对应的集合或数组类型
+     */
+    static ValueBinder valueBinder(Class<?> paramType, Type genericType) throws ReflectiveOperationException {
+        // Array type
+        if (paramType.isArray()) {
+            ArrayConverter converter = ValueConverters.findArray(paramType.getComponentType());
+            return converter == null ? (params, name) -> null : (params, name) -> converter.convert(params.getAll(name));
+        }
+        // Collection type
+        else if (Collection.class.isAssignableFrom(paramType)) {
+            return collection(genericType);
+        }
+        // String, primitive and registered value type
+        else if (ValueConverters.supports(paramType)) {
+            ValueConverter<?> converter = ValueConverters.find(paramType);
+            return (params, name) -> ValueConverters.convert(params.get(name), converter);
+        }
+        return (params, name) -> null;
+    }
+
+    /**
+     * 解析集合类型
+     *
+     * @param genericType from Method::getGenericParameterTypes
+     */
+    @SuppressWarnings("unchecked")
+    static ValueBinder collection(Type genericType) throws ReflectiveOperationException {
+        Class<?> actualTypeArgument = String.class; // 无泛型参数默认用String类型
+        Class<?> rawType;
+        // 参数带泛型
+        if (genericType instanceof ParameterizedType) {
+            ParameterizedType parameterType = (ParameterizedType) genericType;
+            actualTypeArgument = (Class<?>) parameterType.getActualTypeArguments()[0];
+            rawType = (Class<?>) parameterType.getRawType();
+        } else {
+            rawType = (Class<?>) genericType;
+        }
+
+        Supplier<Collection<Object>> factory;
+        if (rawType == List.class || rawType == Collection.class) {
+            factory = ArrayList::new;
+        } else if (rawType == Set.class) {
+            factory = HashSet::new;
+        } else {
+            MethodHandle constructor = LOOKUP.findConstructor(rawType, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Collection.class));
+            factory = () -> {
+                try {
+                    return (Collection<Object>) constructor.invokeExact();
+                } catch (Throwable e) {
+                    throw new IllegalStateException("failed to create collection " + rawType.getName(), e);
+                }
+            };
+        }
+
+        ValueConverter<?> converter = ValueConverters.find(actualTypeArgument);
+        if (converter == null) {
+            return (params, name) -> null;
+        }
+        return (params, name) -> {
+            Collection<Object> coll = factory.get();
+            for (String value : params.getAll(name)) {
+                coll.add(ValueConverters.convert(value, converter));
+            }
+            return coll;
+        };
+    }
+}
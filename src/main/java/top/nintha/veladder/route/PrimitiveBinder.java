@@ -0,0 +1,90 @@
+package top.nintha.veladder.route;
+
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * 基础类型参数的绑定器，{@link InvokerGenerator}生成的代码直接调用对应类型的 bindXxx 方法，
+ * 解析结果不经过装箱；通过{@link #bind}调用时与其他绑定器一样返回包装类型。
+ * <p>
+ * 参数缺失或为空白时抛出{@link IllegalArgumentException}
+ */
+public final class PrimitiveBinder implements ParamBinder {
+    private final String name;
+    private final Class<?> type;
+
+    PrimitiveBinder(String name, Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            throw new IllegalArgumentException("not a primitive type: " + type);
+        }
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     * 生成代码中使用的取值方法名，例如 bindLong
+     */
+    String accessor() {
+        String typeName = type.getName();
+        return "bind" + Character.toUpperCase(typeName.charAt(0)) + typeName.substring(1);
+    }
+
+    @Override
+    public Object bind(RoutingContext ctx) {
+        if (type == int.class) {
+            return bindInt(ctx);
+        } else if (type == long.class) {
+            return bindLong(ctx);
+        } else if (type == boolean.class) {
+            return bindBoolean(ctx);
+        } else if (type == double.class) {
+            return bindDouble(ctx);
+        } else if (type == float.class) {
+            return bindFloat(ctx);
+        } else if (type == short.class) {
+            return bindShort(ctx);
+        } else if (type == byte.class) {
+            return bindByte(ctx);
+        }
+        return bindChar(ctx);
+    }
+
+    public int bindInt(RoutingContext ctx) {
+        return Integer.parseInt(value(ctx));
+    }
+
+    public long bindLong(RoutingContext ctx) {
+        return Long.parseLong(value(ctx));
+    }
+
+    public boolean bindBoolean(RoutingContext ctx) {
+        return Boolean.parseBoolean(value(ctx));
+    }
+
+    public double bindDouble(RoutingContext ctx) {
+        return Double.parseDouble(value(ctx));
+    }
+
+    public float bindFloat(RoutingContext ctx) {
+        return Float.parseFloat(value(ctx));
+    }
+
+    public short bindShort(RoutingContext ctx) {
+        return Short.parseShort(value(ctx));
+    }
+
+    public byte bindByte(RoutingContext ctx) {
+        return Byte.parseByte(value(ctx));
+    }
+
+    public char bindChar(RoutingContext ctx) {
+        return value(ctx).charAt(0);
+    }
+
+    private String value(RoutingContext ctx) {
+        String value = ctx.request().params().get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("missing required parameter '" + name + "'");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,68 @@
+package top.nintha.veladder.route;
+
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.vertx.core.Future;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 路由方法的返回值类型，编译时根据声明类型确定，请求时直接按类型处理结果，异步结果不再统一转换为Single
+ */
+public enum ResultType {
+    VOID,
+    /**
+     * 同步返回的普通对象
+     */
+    VALUE,
+    SINGLE,
+    /**
+     * 为空时与void一样返回空响应
+     */
+    MAYBE,
+    COMPLETABLE,
+    COMPLETION_STAGE,
+    VERTX_FUTURE,
+    FLOWABLE;
+
+    public static ResultType of(Class<?> type) {
+        if (type == void.class || type == Void.class) {
+            return VOID;
+        }
+        if (Single.class.isAssignableFrom(type)) {
+            return SINGLE;
+        }
+        if (Maybe.class.isAssignableFrom(type)) {
+            return MAYBE;
+        }
+        if (Completable.class.isAssignableFrom(type)) {
+            return COMPLETABLE;
+        }
+        if (CompletionStage.class.isAssignableFrom(type)) {
+            return COMPLETION_STAGE;
+        }
+        if (Future.class.isAssignableFrom(type)) {
+            return VERTX_FUTURE;
+        }
+        if (Flowable.class.isAssignableFrom(type)) {
+            return FLOWABLE;
+        }
+        return VALUE;
+    }
+
+    /**
+     * 声明为Object时只能按运行时的返回值判断，异步类型返回null时按普通对象处理
+     */
+    ResultType resolve(Object result) {
+        if (result == null) {
+            return this == VOID ? VOID : VALUE;
+        }
+        return this == VALUE ? of(result.getClass()) : this;
+    }
+
+    public boolean isAsync() {
+        return this != VOID && this != VALUE && this != FLOWABLE;
+    }
+}
@@ -0,0 +1,262 @@
+package top.nintha.veladder.route;
+
+import io.vertx.ext.web.FileUpload;
+import io.vertx.ext.web.RoutingContext;
+import javassist.*;
+import javassist.bytecode.CodeAttribute;
+import javassist.bytecode.LocalVariableAttribute;
+import javassist.bytecode.MethodInfo;
+import lombok.extern.slf4j.Slf4j;
+import top.nintha.veladder.annotations.BlockingService;
+import top.nintha.veladder.annotations.Cacheable;
+import top.nintha.veladder.annotations.RequestBody;
+import top.nintha.veladder.annotations.RequestMapping;
+import top.nintha.veladder.annotations.RestController;
+import top.nintha.veladder.cache.ResponseCache;
+import top.nintha.veladder.limit.Admission;
+import top.nintha.veladder.limit.ConcurrencyLimiter;
+import top.nintha.veladder.limit.LimitOptions;
+import top.nintha.veladder.metrics.RouteMetrics;
+import top.nintha.veladder.worker.BlockingDetector;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 将controller中带有{@link RequestMapping}的方法编译为{@link CompiledRoute}
+ */
+@Slf4j
+public class RouteCompiler {
+    private static final Set<String> BODILESS_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final DispatchMode dispatchMode;
+    private final boolean metricsEnabled;
+    /**
+     * 未开启阻塞检测时为null
+     */
+    private final BlockingDetector blockingDetector;
+    private final LimitOptions limitOptions;
+    /**
+     * 当前编译的全部路由共享，未设置全局上限时为null
+     */
+    private final ConcurrencyLimiter globalLimiter;
+    private final InvokerGenerator invokerGenerator = new InvokerGenerator();
+
+    public RouteCompiler() {
+        this(DispatchMode.fromSystemProperty());
+    }
+
+    public RouteCompiler(DispatchMode dispatchMode) {
+        this(dispatchMode, RouteMetrics.isEnabled());
+    }
+
+    /**
+     * @param metricsEnabled 是否为每个路由统计{@link RouteMetrics}
+     */
+    public RouteCompiler(DispatchMode dispatchMode, boolean metricsEnabled) {
+        this(dispatchMode, metricsEnabled, BlockingDetector.fromSystemProperties());
+    }
+
+    /**
+     * @param blockingDetector 检测event loop上执行的路由，可以为null
+     */
+    public RouteCompiler(DispatchMode dispatchMode, boolean metricsEnabled, BlockingDetector blockingDetector) {
+        this(dispatchMode, metricsEnabled, blockingDetector, LimitOptions.fromSystemProperties());
+    }
+
+    public RouteCompiler(DispatchMode dispatchMode, boolean metricsEnabled, BlockingDetector blockingDetector, LimitOptions limitOptions) {
+        this.dispatchMode = dispatchMode;
+        this.metricsEnabled = metricsEnabled;
+        this.blockingDetector = blockingDetector;
+        this.limitOptions = limitOptions;
+        this.globalLimiter = limitOptions.newGlobalLimiter();
+    }
+
+    /**
+     * buildRouteFromAnnotatedClass
+     *
+     * @param controller 带有{@link RestController}注解的实例
+     * @return 该controller下全部路由
+     */
+    public List<CompiledRoute> compile(Object controller) throws NotFoundException, ReflectiveOperationException {
+        return compile(controller, null);
+    }
+
+    /**
+     * @param index 编译时生成的路由索引，收录了该controller时直接使用其中的参数名，不再通过javassist解析字节码
+     */
+    public List<CompiledRoute> compile(Object controller, RouteIndex index) throws NotFoundException, ReflectiveOperationException {
+        Class<?> clazz = controller.getClass();
+        List<CompiledRoute> routes = new ArrayList<>();
+        if (!clazz.isAnnotationPresent(RestController.class)) {
+            return routes;
+        }
+
+        CtClass cc = null;
+        for (Method method : clazz.getDeclaredMethods()) {
+            if (!method.isAnnotationPresent(RequestMapping.class)) {
+                continue;
+            }
+            String[] paramNames = index == null ? null : index.paramNames(method);
+            if (paramNames == null) {
+                if (cc == null) {
+                    ClassPool classPool = ClassPool.getDefault();
+                    classPool.insertClassPath(new ClassClassPath(clazz));
+                    cc = classPool.get(clazz.getName());
+                }
+                paramNames = readParamNames(cc.getDeclaredMethod(method.getName()));
+            }
+            routes.add(compileMethod(controller, method, paramNames));
+        }
+        return routes;
+    }
+
+    private CompiledRoute compileMethod(Object controller, Method method, String[] paramNames) throws ReflectiveOperationException {
+        RequestMapping methodAnno = method.getAnnotation(RequestMapping.class);
+        String requestPath = methodAnno.value();
+        String formatPath = requestPath.startsWith("/") ? requestPath : "/" + requestPath;
+
+        Class<?>[] paramTypes = method.getParameterTypes();
+        Type[] genericTypes = method.getGenericParameterTypes();
+        List<String> httpMethods = List.of(methodAnno.method());
+        ParamBinder[] binders = new ParamBinder[paramTypes.length];
+        BodyMode bodyMode = BodyMode.NONE;
+        for (int i = 0; i < paramTypes.length; i++) {
+            Class<?> paramType = paramTypes[i];
+            BodyMode paramBodyMode;
+            // RequestBody数据解析
+            if (method.getParameters()[i].isAnnotationPresent(RequestBody.class)) {
+                binders[i] = ParamBinders.body(paramType);
+                paramBodyMode = BodyMode.BUFFERED;
+            }
+            // special type
+            else if (paramType == RoutingContext.class) {
+                binders[i] = ParamBinders.context();
+                paramBodyMode = acceptsBody(httpMethods, methodAnno.form()) ? BodyMode.BUFFERED : BodyMode.NONE;
+            } else if (paramType == FileUpload.class) {
+                binders[i] = ParamBinders.upload(paramNames[i]);
+                paramBodyMode = BodyMode.UPLOAD;
+            } else if (ParamBinders.isMultipartStream(genericTypes[i])) {
+                binders[i] = ParamBinders.multipartStream(paramType);
+                paramBodyMode = BodyMode.STREAM;
+            } else if (ParamBinders.isBodyStream(paramType)) {
+                binders[i] = ParamBinders.bodyStream(paramType);
+                paramBodyMode = BodyMode.STREAM;
+            }
+            // Normal Type and POJO Bean, 非GET请求可能通过表单传参
+            else {
+                binders[i] = ParamBinders.forType(paramType, paramNames[i], genericTypes[i]);
+                paramBodyMode = acceptsBody(httpMethods, methodAnno.form()) ? BodyMode.BUFFERED : BodyMode.NONE;
+            }
+            bodyMode = mergeBodyMode(bodyMode, paramBodyMode, method);
+        }
+
+        RouteInvoker invoker;
+        if (dispatchMode == DispatchMode.GENERATED) {
+            invoker = invokerGenerator.generate(controller, method, binders);
+        } else {
+            // 已绑定controller实例，签名为 (Object[])Object
+            MethodHandle handle = MethodHandles.lookup().unreflect(method)
+                    .bindTo(controller)
+                    .asSpreader(Object[].class, paramTypes.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            invoker = new MethodHandleInvoker(binders, handle);
+        }
+
+        // 方法上的声明优先于类上的声明
+        BlockingService blocking = method.getAnnotation(BlockingService.class);
+        if (blocking == null) {
+            blocking = controller.getClass().getAnnotation(BlockingService.class);
+        }
+        String blockingPool = blocking == null ? null : blocking.value();
+
+        log.info("[Router Mapping] {}({}) > {}, {}, {}, body={}, blocking={}", method.getName(), formatPath, Arrays.toString(paramNames), Arrays.toString(paramTypes), dispatchMode, bodyMode, blockingPool);
+        RouteMetrics metrics = metricsEnabled ? new RouteMetrics(formatPath, httpMethods.isEmpty() ? "*" : String.join(",", httpMethods)) : null;
+        // 流式请求体需要在event loop上读取，不自动切换到worker池
+        BlockingDetector.Probe blockingProbe = blockingDetector == null || blockingPool != null ? null
+                : blockingDetector.probe(controller.getClass().getName() + "::" + method.getName(), bodyMode != BodyMode.STREAM);
+        ResponseCache cache = createCache(method, formatPath, httpMethods, paramTypes);
+        if (methodAnno.etag() && ResultType.of(method.getReturnType()) == ResultType.FLOWABLE) {
+            throw new IllegalStateException("ETag does not support return type Flowable, " + method);
+        }
+        String cacheControl = methodAnno.cacheControl().isBlank() ? null : methodAnno.cacheControl();
+        Admission admission = limitOptions.newAdmission(formatPath, httpMethods.isEmpty() ? "*" : String.join(",", httpMethods),
+                methodAnno.maxConcurrency(), globalLimiter);
+        return new CompiledRoute(controller, method, formatPath, httpMethods, paramNames, binders, invoker, bodyMode, methodAnno.bodyLimit(),
+                methodAnno.stream(), methodAnno.etag(), cacheControl, methodAnno.timeoutMillis(), blockingPool, metrics, blockingProbe, cache, admission);
+    }
+
+    /**
+     * 根据{@link Cacheable}创建响应缓存，RoutingContext不参与计算key
+     */
+    private static ResponseCache createCache(Method method, String path, List<String> httpMethods, Class<?>[] paramTypes) {
+        Cacheable cacheable = method.getAnnotation(Cacheable.class);
+        if (cacheable == null) {
+            return null;
+        }
+        Class<?> returnType = method.getReturnType();
+        ResultType resultType = ResultType.of(returnType);
+        if (resultType == ResultType.VOID || resultType == ResultType.COMPLETABLE || resultType == ResultType.FLOWABLE) {
+            throw new IllegalStateException("@Cacheable does not support return type " + returnType.getSimpleName() + ", " + method);
+        }
+        boolean[] keyArgs = new boolean[paramTypes.length];
+        for (int i = 0; i < paramTypes.length; i++) {
+            if (paramTypes[i] == FileUpload.class || ParamBinders.isBodyStream(paramTypes[i])) {
+                throw new IllegalStateException("@Cacheable does not support parameter type " + paramTypes[i].getSimpleName() + ", " + method);
+            }
+            keyArgs[i] = paramTypes[i] != RoutingContext.class;
+        }
+        return new ResponseCache(path, httpMethods.isEmpty() ? "*" : String.join(",", httpMethods), keyArgs, cacheable);
+    }
+
+    /**
+     * 声明了表单绑定，或明确声明了可以携带请求体的HttpMethod；未限定HttpMethod时不读取请求体
+     */
+    private static boolean acceptsBody(List<String> httpMethods, boolean form) {
+        if (form) {
+            return true;
+        }
+        for (String m : httpMethods) {
+            if (!BODILESS_METHODS.contains(m.toUpperCase())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 流式读取请求体时不能再缓存请求体，其余情况取需要处理最多的模式
+     */
+    private static BodyMode mergeBodyMode(BodyMode current, BodyMode param, Method method) {
+        if (current != param && (current == BodyMode.STREAM || param == BodyMode.STREAM) && current != BodyMode.NONE && param != BodyMode.NONE) {
+            throw new IllegalStateException("streaming body can not be combined with buffered body, " + method);
+        }
+        return param.compareTo(current) > 0 ? param : current;
+    }
+
+    /**
+     * 通过javassist获取方法形参名称
+     */
+    private String[] readParamNames(CtMethod ctMethod) throws NotFoundException {
+        MethodInfo methodInfo = ctMethod.getMethodInfo();
+        CodeAttribute codeAttribute = methodInfo.getCodeAttribute();
+        LocalVariableAttribute attribute = (LocalVariableAttribute) codeAttribute.getAttribute(LocalVariableAttribute.tag);
+
+        String[] paramNames = new String[ctMethod.getParameterTypes().length];
+        if (attribute != null) {
+            // 成员方法 0位变量是this
+            int pos = Modifier.isStatic(ctMethod.getModifiers()) ? 0 : 1;
+            for (int i = 0; i < paramNames.length; i++) {
+                paramNames[i] = attribute.variableName(i + pos);
+            }
+        }
+        return paramNames;
+    }
+}
@@ -0,0 +1,652 @@
+package top.nintha.veladder.route;
+
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.Json;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.reactivex.core.RxHelper;
+import lombok.extern.slf4j.Slf4j;
+import top.nintha.veladder.annotations.BlockingService;
+import top.nintha.veladder.cache.ResponseCache;
+import top.nintha.veladder.http.CompressionHandler;
+import top.nintha.veladder.limit.Admission;
+import top.nintha.veladder.metrics.RouteMetrics;
+import top.nintha.veladder.worker.BlockingDetector;
+import top.nintha.veladder.worker.BlockingPool;
+import top.nintha.veladder.worker.BlockingPools;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * 单个路由的请求处理器，通过预先编译好的{@link RouteInvoker}完成参数绑定和方法调用
+ */
+@Slf4j
+public class RouteHandler implements Handler<RoutingContext> {
+    private final CompiledRoute route;
+    private final RouteInvoker invoker;
+    private final JsonResponseEncoder encoder;
+    /**
+     * 未开启指标统计时为null
+     */
+    private final RouteMetrics metrics;
+    /**
+     * 未开启阻塞检测时为null
+     */
+    private final BlockingDetector.Probe blockingProbe;
+    /**
+     * 未开启缓存时为null
+     */
+    private final ResponseCache cache;
+    /**
+     * 未设置并发上限时为null
+     */
+    private final Admission admission;
+    /**
+     * 阻塞接口的worker池，首次请求时按当前Vertx实例解析
+     */
+    private BlockingPool blockingPool;
+    /**
+     * 声明的返回值为字符串，缓存中保存的是原文
+     */
+    private final boolean textResult;
+
+    public RouteHandler(CompiledRoute route) {
+        this.route = route;
+        this.invoker = route.getInvoker();
+        this.encoder = route.getEncoder();
+        this.metrics = route.getMetrics();
+        this.blockingProbe = route.getBlockingProbe();
+        this.cache = route.getCache();
+        this.admission = route.getAdmission();
+        Type valueType = JsonResponseEncoder.valueType(route.getMethod().getGenericReturnType());
+        Class<?> rawType = valueType instanceof ParameterizedType ? (Class<?>) ((ParameterizedType) valueType).getRawType()
+                : valueType instanceof Class ? (Class<?>) valueType : Object.class;
+        this.textResult = CharSequence.class.isAssignableFrom(rawType);
+    }
+
+    public CompiledRoute getRoute() {
+        return route;
+    }
+
+    /**
+     * 批量请求中的子请求：绑定参数、调用并将结果编码为JSON，不写入响应。
+     * 与单独请求一样使用worker池、响应缓存和指标统计，字符串结果会加上引号
+     */
+    public CompletableFuture<Buffer> dispatch(RoutingContext ctx) {
+        if (metrics == null) {
+            return dispatchLimited(ctx);
+        }
+        long start = metrics.start();
+        CompletableFuture<Buffer> result = dispatchLimited(ctx);
+        result.whenComplete((body, err) -> metrics.end(err == null ? statusOf(ctx) : statusOf(unwrap(err)), start));
+        return result;
+    }
+
+    private CompletableFuture<Buffer> dispatchLimited(RoutingContext ctx) {
+        if (admission == null) {
+            return dispatchAdmitted(ctx);
+        }
+        if (!admission.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("concurrency limit exceeded, " + route));
+        }
+        long admitted = System.nanoTime();
+        CompletableFuture<Buffer> result = dispatchAdmitted(ctx);
+        result.whenComplete((body, err) -> admission.release(System.nanoTime() - admitted, err != null));
+        return result;
+    }
+
+    private CompletableFuture<Buffer> dispatchAdmitted(RoutingContext ctx) {
+        Object[] args;
+        try {
+            args = bindArgs(ctx);
+        } catch (Throwable e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (cache == null) {
+            return load(ctx, args, true);
+        }
+        return cache.get(cache.key(args), () -> load(ctx, args, false))
+                .thenApply(body -> textResult ? Json.encodeToBuffer(body.toString()) : body);
+    }
+
+    @Override
+    public void handle(RoutingContext ctx) {
+        if (metrics != null) {
+            long start = metrics.start();
+            // 连接提前关闭时也会触发
+            ctx.addEndHandler(ar -> metrics.end(ctx.response().getStatusCode(), start));
+        }
+        if (admission != null) {
+            if (!admission.tryAcquire()) {
+                reject(ctx);
+                return;
+            }
+            long admitted = System.nanoTime();
+            ctx.addEndHandler(ar -> admission.release(System.nanoTime() - admitted, ctx.response().getStatusCode() >= 500));
+        }
+        // 缓存接口先在event loop上计算key，未命中时再按执行方式调用
+        if (cache == null && isOffloaded()) {
+            handleBlocking(ctx);
+            return;
+        }
+        if (blockingProbe == null) {
+            handleOnEventLoop(ctx);
+            return;
+        }
+        blockingProbe.enter();
+        try {
+            handleOnEventLoop(ctx);
+        } finally {
+            blockingProbe.exit();
+        }
+    }
+
+    /**
+     * 阻塞接口，或被阻塞检测自动切换到worker池的接口
+     */
+    private boolean isOffloaded() {
+        return route.isBlocking() || (blockingProbe != null && blockingProbe.isPromoted());
+    }
+
+    private void handleOnEventLoop(RoutingContext ctx) {
+        if (cache != null) {
+            handleCached(ctx);
+            return;
+        }
+        Object result;
+        try {
+            result = invoke(ctx);
+        } catch (Throwable e) {
+            onError(ctx, e);
+            return;
+        }
+        handleResult(ctx, result);
+    }
+
+    /**
+     * 阻塞接口在worker池中完成参数绑定和调用，结果回到当前event loop处理；
+     * 被阻塞检测自动切换的路由使用默认池
+     */
+    private void handleBlocking(RoutingContext ctx) {
+        workerPool(ctx).submit(() -> {
+            try {
+                return invoke(ctx);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        }).onComplete(ar -> {
+            if (ar.succeeded()) {
+                handleResult(ctx, ar.result());
+            } else {
+                onError(ctx, ar.cause());
+            }
+        });
+    }
+
+    private BlockingPool workerPool(RoutingContext ctx) {
+        if (blockingPool == null) {
+            blockingPool = BlockingPools.get(ctx.vertx(), route.isBlocking() ? route.getBlockingPool() : BlockingService.DEFAULT_POOL);
+        }
+        return blockingPool;
+    }
+
+    /**
+     * 缓存命中时直接返回编码好的内容，未命中时调用并编码，同一个key的并发请求共享一次调用
+     */
+    private void handleCached(RoutingContext ctx) {
+        Object[] args;
+        try {
+            args = bindArgs(ctx);
+        } catch (Throwable e) {
+            onError(ctx, e);
+            return;
+        }
+        Context context = ctx.vertx().getOrCreateContext();
+        cache.get(cache.key(args), () -> load(ctx, args, false)).whenComplete((body, err) -> {
+            Runnable reply = () -> {
+                if (err == null) {
+                    ctx.response().putHeader(HttpHeaders.CONTENT_TYPE, "application/json;charset=UTF-8");
+                    writeBody(ctx, body);
+                } else {
+                    onError(ctx, unwrap(err));
+                }
+            };
+            // 等待其他请求加载的结果在加载方的线程上完成，需要切换回当前请求的context
+            if (Vertx.currentContext() == context) {
+                reply.run();
+            } else {
+                context.runOnContext(v -> reply.run());
+            }
+        });
+    }
+
+    /**
+     * @param json 字符串结果也编码为JSON
+     */
+    private CompletableFuture<Buffer> load(RoutingContext ctx, Object[] args, boolean json) {
+        CompletableFuture<Buffer> loaded = new CompletableFuture<>();
+        if (isOffloaded()) {
+            workerPool(ctx).submit(() -> {
+                try {
+                    return invoker.invokeWithArgs(args);
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new UndeclaredThrowableException(e);
+                }
+            }).onComplete(ar -> {
+                if (ar.succeeded()) {
+                    encodeResult(ar.result(), loaded, json);
+                } else {
+                    loaded.completeExceptionally(ar.cause());
+                }
+            });
+        } else {
+            try {
+                encodeResult(invoker.invokeWithArgs(args), loaded, json);
+            } catch (Throwable e) {
+                loaded.completeExceptionally(e);
+            }
+        }
+        return loaded;
+    }
+
+    private void encodeResult(Object result, CompletableFuture<Buffer> loaded, boolean json) {
+        // 加载结果可能被多个请求共享，不随单个请求断开而取消
+        long timeout = route.getTimeoutMillis();
+        switch (route.getResultType().resolve(result)) {
+            case SINGLE:
+                withTimeout((Single<?>) result, Schedulers.computation())
+                        .subscribe(x -> encodeValue(x, loaded, json), loaded::completeExceptionally);
+                break;
+            case MAYBE:
+                Maybe<?> maybe = timeout > 0 ? ((Maybe<?>) result).timeout(timeout, TimeUnit.MILLISECONDS, Schedulers.computation()) : (Maybe<?>) result;
+                maybe.subscribe(x -> encodeValue(x, loaded, json), loaded::completeExceptionally, () -> encodeValue(null, loaded, json));
+                break;
+            case COMPLETABLE:
+                Completable completable = timeout > 0 ? ((Completable) result).timeout(timeout, TimeUnit.MILLISECONDS, Schedulers.computation()) : (Completable) result;
+                completable.subscribe(() -> encodeValue(null, loaded, json), loaded::completeExceptionally);
+                break;
+            case COMPLETION_STAGE:
+                CompletionStage<?> stage = (CompletionStage<?>) result;
+                stage.whenComplete((x, err) -> {
+                    if (err == null) {
+                        encodeValue(x, loaded, json);
+                    } else {
+                        loaded.completeExceptionally(unwrap(err));
+                    }
+                });
+                if (timeout > 0) {
+                    // 与Single一样，超时后取消上游任务
+                    loaded.orTimeout(timeout, TimeUnit.MILLISECONDS).whenComplete((body, err) -> {
+                        if (err instanceof TimeoutException) {
+                            cancel(stage);
+                        }
+                    });
+                }
+                break;
+            case VERTX_FUTURE:
+                // Vert.x Future不能取消，超时后只忽略其结果
+                ((Future<?>) result).onComplete(ar -> {
+                    if (ar.succeeded()) {
+                        encodeValue(ar.result(), loaded, json);
+                    } else {
+                        loaded.completeExceptionally(ar.cause());
+                    }
+                });
+                if (timeout > 0) {
+                    loaded.orTimeout(timeout, TimeUnit.MILLISECONDS);
+                }
+                break;
+            default:
+                encodeValue(result, loaded, json);
+        }
+    }
+
+    private void encodeValue(Object result, CompletableFuture<Buffer> loaded, boolean json) {
+        try {
+            loaded.complete(json ? encoder.encodeJson(result) : encoder.encode(result));
+        } catch (Throwable e) {
+            loaded.completeExceptionally(e);
+        }
+    }
+
+    private Object[] bindArgs(RoutingContext ctx) throws Throwable {
+        ParamBinder[] binders = route.getBinders();
+        Object[] args = new Object[binders.length];
+        for (int i = 0; i < binders.length; i++) {
+            args[i] = binders[i].bind(ctx);
+        }
+        return args;
+    }
+
+    private Single<?> withTimeout(Single<?> single, Scheduler scheduler) {
+        long timeout = route.getTimeoutMillis();
+        return timeout > 0 ? single.timeout(timeout, TimeUnit.MILLISECONDS, scheduler) : single;
+    }
+
+    /**
+     * 超时在当前请求的event loop上触发
+     */
+    private Scheduler timeoutScheduler(RoutingContext ctx) {
+        return RxHelper.scheduler(io.vertx.reactivex.core.Context.newInstance(ctx.vertx().getOrCreateContext()));
+    }
+
+    private static Throwable unwrap(Throwable err) {
+        return err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+    }
+
+    /**
+     * 开启指标统计时先绑定参数再调用，分别记录两个阶段的耗时
+     */
+    private Object invoke(RoutingContext ctx) throws Throwable {
+        if (metrics == null) {
+            return invoker.invoke(ctx);
+        }
+        long start = System.nanoTime();
+        Object[] args = bindArgs(ctx);
+        long bound = System.nanoTime();
+        metrics.record(RouteMetrics.Phase.BINDING, bound - start);
+        try {
+            return invoker.invokeWithArgs(args);
+        } finally {
+            metrics.record(RouteMetrics.Phase.INVOCATION, System.nanoTime() - bound);
+        }
+    }
+
+    /**
+     * 按编译时确定的返回值类型处理结果，异步结果直接在各自的回调中写出响应
+     */
+    private void handleResult(RoutingContext ctx, Object result) {
+        try {
+            HttpServerResponse response = ctx.response();
+            if (!response.headWritten()) {
+                response.putHeader(HttpHeaders.CONTENT_TYPE, "application/json;charset=UTF-8");
+            }
+            long subscribed = metrics == null ? 0 : System.nanoTime();
+            long timeout = route.getTimeoutMillis();
+            Disposable disposable;
+            switch (route.getResultType().resolve(result)) {
+                case SINGLE:
+                    Single<?> single = timeout > 0 ? withTimeout((Single<?>) result, timeoutScheduler(ctx)) : (Single<?>) result;
+                    disposable = single.subscribe(x -> asyncEnd(ctx, x, subscribed), err -> onError(ctx, err));
+                    break;
+                case MAYBE:
+                    Maybe<?> maybe = timeout > 0 ? ((Maybe<?>) result).timeout(timeout, TimeUnit.MILLISECONDS, timeoutScheduler(ctx)) : (Maybe<?>) result;
+                    // 为空时与void一样返回空响应
+                    disposable = maybe.subscribe(x -> asyncEnd(ctx, x, subscribed), err -> onError(ctx, err), () -> {
+                        recordAsync(subscribed);
+                        endEmpty(ctx);
+                    });
+                    break;
+                case COMPLETABLE:
+                    Completable completable = timeout > 0 ? ((Completable) result).timeout(timeout, TimeUnit.MILLISECONDS, timeoutScheduler(ctx)) : (Completable) result;
+                    disposable = completable.subscribe(() -> asyncEnd(ctx, null, subscribed), err -> onError(ctx, err));
+                    break;
+                case COMPLETION_STAGE:
+                    handleStage(ctx, (CompletionStage<?>) result, subscribed);
+                    return;
+                case VERTX_FUTURE:
+                    handleFuture(ctx, (Future<?>) result, subscribed);
+                    return;
+                case FLOWABLE:
+                    ((Flowable<?>) result).subscribe(new FlowableResponseWriter(ctx, route.getStreamFormat(), encoder, err -> onError(ctx, err)));
+                    return;
+                default:
+                    responseEnd(ctx, result);
+                    return;
+            }
+            // 客户端断开时取消订阅，取消会传递到上游的worker任务或CompletableFuture；正常结束时为空操作
+            if (!disposable.isDisposed()) {
+                ctx.addEndHandler(ar -> disposable.dispose());
+            }
+        } catch (Throwable e) {
+            onError(ctx, e);
+        }
+    }
+
+    /**
+     * 已完成的CompletableFuture直接写出响应，否则等待回调，客户端断开时取消
+     */
+    private void handleStage(RoutingContext ctx, CompletionStage<?> stage, long subscribed) {
+        if (stage instanceof CompletableFuture && ((CompletableFuture<?>) stage).isDone()) {
+            stage.whenComplete((x, err) -> asyncEnd(ctx, x, err, subscribed));
+            return;
+        }
+        stage.whenComplete(new AsyncReply(ctx, () -> cancel(stage), subscribed));
+    }
+
+    /**
+     * 取消CompletionStage背后的任务，不能取消的实现忽略
+     */
+    private static void cancel(CompletionStage<?> stage) {
+        if (stage instanceof java.util.concurrent.Future) {
+            ((java.util.concurrent.Future<?>) stage).cancel(true);
+            return;
+        }
+        try {
+            stage.toCompletableFuture().cancel(true);
+        } catch (UnsupportedOperationException e) {
+            // ignore
+        }
+    }
+
+    /**
+     * Vert.x Future不能取消，客户端断开时只忽略其结果
+     */
+    private void handleFuture(RoutingContext ctx, Future<?> future, long subscribed) {
+        if (future.isComplete()) {
+            asyncEnd(ctx, future.result(), future.cause(), subscribed);
+            return;
+        }
+        AsyncReply reply = new AsyncReply(ctx, null, subscribed);
+        future.onComplete(ar -> reply.accept(ar.result(), ar.cause()));
+    }
+
+    private void asyncEnd(RoutingContext ctx, Object x, Throwable err, long subscribed) {
+        if (err != null) {
+            onError(ctx, unwrap(err));
+            return;
+        }
+        try {
+            asyncEnd(ctx, x, subscribed);
+        } catch (Throwable e) {
+            onError(ctx, e);
+        }
+    }
+
+    private void asyncEnd(RoutingContext ctx, Object x, long subscribed) throws IOException {
+        recordAsync(subscribed);
+        responseEnd(ctx, x);
+    }
+
+    private void recordAsync(long subscribed) {
+        if (metrics != null) {
+            metrics.record(RouteMetrics.Phase.ASYNC, System.nanoTime() - subscribed);
+        }
+    }
+
+    /**
+     * Write to the response and end it
+     */
+    private void responseEnd(RoutingContext ctx, Object x) throws IOException {
+        if (route.isVoid()) {
+            endEmpty(ctx);
+        } else if (metrics == null) {
+            writeBody(ctx, encoder.encode(x));
+        } else {
+            long start = System.nanoTime();
+            Buffer body = encoder.encode(x);
+            metrics.record(RouteMetrics.Phase.SERIALIZATION, System.nanoTime() - start);
+            writeBody(ctx, body);
+        }
+    }
+
+    private void endEmpty(RoutingContext ctx) {
+        HttpServerResponse response = ctx.response();
+        if (route.getCacheControl() != null) {
+            response.putHeader(HttpHeaders.CACHE_CONTROL, route.getCacheControl());
+        }
+        response.end();
+    }
+
+    /**
+     * 写入编码后的响应内容，按路由配置设置Cache-Control和ETag，
+     * GET/HEAD请求的If-None-Match与ETag匹配时返回不带内容的304，304同样带上压缩协商的Vary
+     */
+    private void writeBody(RoutingContext ctx, Buffer body) {
+        HttpServerResponse response = ctx.response();
+        if (route.getCacheControl() != null) {
+            response.putHeader(HttpHeaders.CACHE_CONTROL, route.getCacheControl());
+        }
+        if (route.isEtag() && response.getStatusCode() == 200) {
+            String etag = ETags.compute(body, CompressionHandler.encoding(ctx, body.length()));
+            response.putHeader(HttpHeaders.ETAG, etag);
+            HttpMethod method = ctx.request().method();
+            if ((method == HttpMethod.GET || method == HttpMethod.HEAD)
+                    && ETags.matches(ctx.request().getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                response.setStatusCode(304);
+                response.headers().remove(HttpHeaders.CONTENT_TYPE);
+                response.end();
+                return;
+            }
+        }
+        response.end(CompressionHandler.compress(ctx, body));
+    }
+
+    /**
+     * 超过并发上限时不做任何处理直接返回503
+     */
+    private void reject(RoutingContext ctx) {
+        ctx.response().setStatusCode(503)
+                .putHeader(HttpHeaders.RETRY_AFTER, Integer.toString(admission.getRetryAfterSeconds()))
+                .putHeader(HttpHeaders.CONTENT_TYPE, "application/json;charset=UTF-8")
+                .end("{\"message\":\"service unavailable\"}");
+    }
+
+    /**
+     * 与{@link #onError}写出的状态码一致，用于子请求的指标统计
+     */
+    private static int statusOf(Throwable err) {
+        if (err instanceof RejectedExecutionException) {
+            return 503;
+        }
+        return err instanceof TimeoutException ? 504 : 500;
+    }
+
+    /**
+     * 子请求正常返回时的状态码，controller调用fail时为失败的状态码
+     */
+    private static int statusOf(RoutingContext ctx) {
+        if (ctx.failed()) {
+            return ctx.statusCode() == -1 ? 500 : ctx.statusCode();
+        }
+        return ctx.response().getStatusCode();
+    }
+
+    private void onError(RoutingContext ctx, Throwable err) {
+        HashMap<String, Object> map = new HashMap<>();
+        if (err instanceof RejectedExecutionException) {
+            log.warn("request rejected, {}, {}", route, err.getMessage());
+            ctx.response().setStatusCode(503);
+            map.put("message", "service unavailable");
+        } else if (err instanceof TimeoutException) {
+            log.warn("request timeout, {}, {} ms", route, route.getTimeoutMillis());
+            ctx.response().setStatusCode(504);
+            map.put("message", "gateway timeout");
+        } else {
+            log.error("request error, {} ", route, err);
+            map.put("message", "system error");
+        }
+        ctx.response().end(Json.encode(map));
+    }
+
+    /**
+     * CompletionStage和Vert.x Future的回调：完成、超时和客户端断开只有先发生的一个生效，
+     * 完成时切换回请求所在的context写出响应
+     */
+    private final class AsyncReply implements BiConsumer<Object, Throwable> {
+        private final AtomicBoolean done = new AtomicBoolean();
+        private final RoutingContext ctx;
+        private final Context context;
+        /**
+         * 不能取消时为null
+         */
+        private final Runnable cancel;
+        private final long subscribed;
+        private final long timerId;
+
+        AsyncReply(RoutingContext ctx, Runnable cancel, long subscribed) {
+            this.ctx = ctx;
+            this.context = ctx.vertx().getOrCreateContext();
+            this.cancel = cancel;
+            this.subscribed = subscribed;
+            long timeout = route.getTimeoutMillis();
+            this.timerId = timeout <= 0 ? -1 : ctx.vertx().setTimer(timeout, id -> {
+                if (done.compareAndSet(false, true)) {
+                    cancel();
+                    onError(ctx, new TimeoutException("timeout after " + timeout + " ms"));
+                }
+            });
+            // 正常结束时为空操作
+            ctx.addEndHandler(ar -> {
+                if (done.compareAndSet(false, true)) {
+                    cancelTimer();
+                    cancel();
+                }
+            });
+        }
+
+        @Override
+        public void accept(Object x, Throwable err) {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            cancelTimer();
+            if (Vertx.currentContext() == context) {
+                asyncEnd(ctx, x, err, subscribed);
+            } else {
+                context.runOnContext(v -> asyncEnd(ctx, x, err, subscribed));
+            }
+        }
+
+        private void cancelTimer() {
+            if (timerId >= 0) {
+                ctx.vertx().cancelTimer(timerId);
+            }
+        }
+
+        private void cancel() {
+            if (cancel != null) {
+                cancel.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package top.nintha.veladder.route;
+
+import com.google.common.primitives.Primitives;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 编译时由veladder-processor生成的路由索引，包含controller、方法签名和参数名。
+ * classpath中每个jar可以各自带有一份索引，加载时合并
+ */
+@Slf4j
+public class RouteIndex {
+    public static final String RESOURCE = "META-INF/veladder/routes.idx";
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+    static {
+        for (Class<?> type : Primitives.allPrimitiveTypes()) {
+            PRIMITIVES.put(type.getName(), type);
+        }
+    }
+
+    /**
+     * controller类名 -> (方法签名 -> 参数名)
+     */
+    private final Map<String, Map<String, String[]>> controllers = new LinkedHashMap<>();
+
+    private RouteIndex() {
+    }
+
+    /**
+     * 加载classpath中的全部索引
+     *
+     * @return 不存在索引时返回null
+     */
+    public static RouteIndex load(ClassLoader classLoader) throws IOException {
+        Enumeration<URL> resources = classLoader.getResources(RESOURCE);
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+        RouteIndex index = new RouteIndex();
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                index.read(reader);
+            }
+        }
+        return index;
+    }
+
+    private void read(BufferedReader reader) throws IOException {
+        Map<String, String[]> methods = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t", -1);
+            if ("controller".equals(fields[0])) {
+                methods = controllers.computeIfAbsent(fields[1], k -> new HashMap<>());
+            } else if ("method".equals(fields[0]) && methods != null) {
+                methods.put(signature(fields[1], fields[2]), fields[3].isEmpty() ? new String[0] : fields[3].split(","));
+            }
+        }
+    }
+
+    /**
+     * 指定包及其子包下的controller类名
+     */
+    public List<String> controllersIn(String packageName) {
+        List<String> names = new ArrayList<>();
+        for (String name : controllers.keySet()) {
+            if (name.startsWith(packageName + ".")) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    public boolean contains(Class<?> controllerClass) {
+        return controllers.containsKey(controllerClass.getName());
+    }
+
+    /**
+     * 索引中记录的方法参数名
+     *
+     * @return 未收录时返回null
+     */
+    public String[] paramNames(Method method) {
+        Map<String, String[]> methods = controllers.get(method.getDeclaringClass().getName());
+        if (methods == null) {
+            return null;
+        }
+        StringJoiner types = new StringJoiner(",");
+        for (Class<?> type : method.getParameterTypes()) {
+            types.add(type.getName());
+        }
+        return methods.get(signature(method.getName(), types.toString()));
+    }
+
+    /**
+     * 加载类但不执行静态初始化
+     */
+    public static Class<?> loadClass(String name, ClassLoader classLoader) throws ClassNotFoundException {
+        Class<?> primitive = PRIMITIVES.get(name);
+        return primitive != null ? primitive : Class.forName(name, false, classLoader);
+    }
+
+    private static String signature(String methodName, String paramTypes) {
+        return methodName + "(" + paramTypes + ")";
+    }
+}
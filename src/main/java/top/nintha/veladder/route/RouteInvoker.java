@@ -0,0 +1,16 @@
+package top.nintha.veladder.route;
+
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * 完成参数绑定并调用controller方法，返回原始结果
+ */
+public interface RouteInvoker {
+
+    Object invoke(RoutingContext ctx) throws Throwable;
+
+    /**
+     * 使用已绑定好的参数调用，参数顺序与{@link CompiledRoute#getBinders()}一致，用于单独统计参数绑定的耗时
+     */
+    Object invokeWithArgs(Object[] args) throws Throwable;
+}
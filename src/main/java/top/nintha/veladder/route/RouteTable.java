@@ -0,0 +1,51 @@
+package top.nintha.veladder.route;
+
+import lombok.extern.slf4j.Slf4j;
+import top.nintha.veladder.annotations.RestController;
+import top.nintha.veladder.utils.ClassScanUtil;
+
+import java.util.*;
+
+/**
+ * 扫描并编译后的全部路由，创建后只读，可以在多个verticle实例之间共享
+ */
+@Slf4j
+public class RouteTable {
+    private final List<CompiledRoute> routes;
+
+    public RouteTable(List<CompiledRoute> routes) {
+        this.routes = Collections.unmodifiableList(new ArrayList<>(routes));
+    }
+
+    /**
+     * 查找包下的controller，每个controller只实例化一次。
+     * 优先使用编译时生成的{@link RouteIndex}，不存在索引时才扫描classpath
+     */
+    public static RouteTable scan(String packageName, RouteCompiler compiler) throws Exception {
+        long start = System.nanoTime();
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        RouteIndex index = RouteIndex.load(classLoader);
+        Set<Class<?>> classes;
+        if (index != null) {
+            classes = new LinkedHashSet<>();
+            for (String name : index.controllersIn(packageName)) {
+                classes.add(RouteIndex.loadClass(name, classLoader));
+            }
+        } else {
+            classes = ClassScanUtil.scanByAnnotation(packageName, RestController.class);
+        }
+
+        List<CompiledRoute> routes = new ArrayList<>();
+        for (Class<?> cls : classes) {
+            Object controller = cls.getConstructor().newInstance();
+            routes.addAll(compiler.compile(controller, index));
+        }
+        log.info("[RouteTable] {} routes compiled from {} controllers in {} ms, source={}",
+                routes.size(), classes.size(), (System.nanoTime() - start) / 1_000_000, index != null ? RouteIndex.RESOURCE : "classpath scan");
+        return new RouteTable(routes);
+    }
+
+    public List<CompiledRoute> getRoutes() {
+        return routes;
+    }
+}
@@ -0,0 +1,199 @@
+package top.nintha.veladder.route;
+
+import io.vertx.core.http.HttpMethod;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 按路径段组织的前缀树，查找耗时只与路径段数有关，与路由数量无关。
+ * <p>
+ * 支持静态段、{@code :param}参数段和末尾的{@code *}通配，同一位置静态段优先于参数段，参数段优先于通配，
+ * 优先分支匹配失败时回溯尝试下一个分支
+ *
+ * @param <T> 路由绑定的值
+ */
+public final class RouteTrie<T> {
+    private final Node<T> root = new Node<>();
+    /**
+     * 所有路由中参数段的最大数量，用于预分配匹配结果
+     */
+    private int maxParams;
+
+    /**
+     * 注册路由，同一路径和HttpMethod重复注册时保留先注册的值，与Vert.x Router按注册顺序匹配的行为一致
+     *
+     * @param path    以/开头的路径
+     * @param methods 为空时匹配全部HttpMethod
+     * @return 是否注册成功
+     */
+    public boolean add(String path, Collection<HttpMethod> methods, T value) {
+        Node<T> node = root;
+        List<String> paramNames = new ArrayList<>();
+        String[] segments = split(path);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.equals("*")) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("wildcard must be the last segment, path=" + path);
+                }
+                if (node.wildcard == null) {
+                    node.wildcard = new Node<>();
+                }
+                node = node.wildcard;
+            } else if (segment.startsWith(":")) {
+                String name = segment.substring(1);
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("empty path parameter name, path=" + path);
+                }
+                paramNames.add(name);
+                if (node.param == null) {
+                    node.param = new Node<>();
+                }
+                node = node.param;
+            } else {
+                if (segment.indexOf(':') >= 0 || segment.indexOf('*') >= 0) {
+                    throw new IllegalArgumentException("unsupported path segment '" + segment + "', path=" + path);
+                }
+                node = node.statics.computeIfAbsent(segment, k -> new Node<>());
+            }
+        }
+        maxParams = Math.max(maxParams, paramNames.size());
+        Leaf<T> leaf = new Leaf<>(value, paramNames.toArray(new String[0]));
+        if (methods.isEmpty()) {
+            if (node.any != null) {
+                return false;
+            }
+            node.any = leaf;
+            return true;
+        }
+        boolean added = false;
+        for (HttpMethod method : methods) {
+            added |= node.methods.putIfAbsent(method, leaf) == null;
+        }
+        return added;
+    }
+
+    /**
+     * 查找路由
+     *
+     * @param path 规范化后的请求路径
+     * @return 路径不匹配时返回null；路径匹配但HttpMethod不匹配时返回{@link Match#getValue()}为null的结果
+     */
+    public Match<T> find(HttpMethod method, String path) {
+        String[] params = new String[maxParams];
+        Node<T> node = match(root, path, path.startsWith("/") ? 1 : 0, params, 0);
+        if (node == null) {
+            return null;
+        }
+        Leaf<T> leaf = node.methods.get(method);
+        if (leaf == null) {
+            leaf = node.any;
+        }
+        return leaf == null ? new Match<>(null, null, null) : new Match<>(leaf.value, leaf.paramNames, params);
+    }
+
+    private static <T> Node<T> match(Node<T> node, String path, int start, String[] params, int paramCount) {
+        if (start >= path.length()) {
+            if (node.hasLeaf()) {
+                return node;
+            }
+            // /static/* 同时匹配 /static
+            return node.wildcard != null && node.wildcard.hasLeaf() ? node.wildcard : null;
+        }
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        int next = end + 1;
+        if (!node.statics.isEmpty()) {
+            Node<T> child = node.statics.get(path.substring(start, end));
+            if (child != null) {
+                Node<T> found = match(child, path, next, params, paramCount);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        if (node.param != null && end > start) {
+            params[paramCount] = path.substring(start, end);
+            Node<T> found = match(node.param, path, next, params, paramCount + 1);
+            if (found != null) {
+                return found;
+            }
+        }
+        if (node.wildcard != null && node.wildcard.hasLeaf()) {
+            return node.wildcard;
+        }
+        return null;
+    }
+
+    private static String[] split(String path) {
+        return Arrays.stream(path.split("/")).filter(s -> !s.isEmpty()).toArray(String[]::new);
+    }
+
+    private static final class Node<T> {
+        private final Map<String, Node<T>> statics = new HashMap<>();
+        private final Map<HttpMethod, Leaf<T>> methods = new HashMap<>();
+        private Node<T> param;
+        private Node<T> wildcard;
+        private Leaf<T> any;
+
+        private boolean hasLeaf() {
+            return any != null || !methods.isEmpty();
+        }
+    }
+
+    private static final class Leaf<T> {
+        private final T value;
+        private final String[] paramNames;
+
+        private Leaf(T value, String[] paramNames) {
+            this.value = value;
+            this.paramNames = paramNames;
+        }
+    }
+
+    /**
+     * 匹配结果，参数值按参数名的顺序排列
+     */
+    public static final class Match<T> {
+        private final T value;
+        private final String[] paramNames;
+        private final String[] paramValues;
+
+        private Match(T value, String[] paramNames, String[] paramValues) {
+            this.value = value;
+            this.paramNames = paramNames;
+            this.paramValues = paramValues;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public int getParamCount() {
+            return paramNames == null ? 0 : paramNames.length;
+        }
+
+        public String getParamName(int index) {
+            return paramNames[index];
+        }
+
+        public String getParamValue(int index) {
+            return paramValues[index];
+        }
+
+        /**
+         * 解码后的路径参数，与查询参数不同，'+'保持原样不解码为空格
+         */
+        public String getDecodedParamValue(int index) {
+            String value = paramValues[index];
+            if (value.indexOf('%') < 0) {
+                return value;
+            }
+            return URLDecoder.decode(value.replace("+", "%2B"), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package top.nintha.veladder.route;
+
+/**
+ * 路由匹配方式
+ */
+public enum RouterMode {
+    /**
+     * 每个路由注册到Vert.x Router，按注册顺序逐个匹配
+     */
+    VERTX,
+    /**
+     * 全部路由编译为前缀树，作为一个route挂载，见{@link TrieRouter}
+     */
+    TRIE;
+
+    public static final String PROPERTY = "veladder.router";
+
+    /**
+     * 从系统属性读取，默认{@link #VERTX}
+     */
+    public static RouterMode fromSystemProperty() {
+        String value = System.getProperty(PROPERTY);
+        return value == null || value.isBlank() ? VERTX : valueOf(value.trim().toUpperCase());
+    }
+}
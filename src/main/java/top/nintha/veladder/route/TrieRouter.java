@@ -0,0 +1,105 @@
+package top.nintha.veladder.route;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 基于{@link RouteTrie}的路由分发，全部路由只在Vert.x Router上挂载一个route，
+ * 避免Router按注册顺序逐个匹配路由和参数正则。
+ * <p>
+ * 挂载的route依次执行：查找路由并写入路径参数、按路由执行请求体处理器、调用请求处理器。
+ * 路径不匹配时交给后续route处理，路径匹配但HttpMethod不匹配时返回405
+ */
+@Slf4j
+public class TrieRouter {
+    private static final String ENDPOINT_KEY = TrieRouter.class.getName() + ".endpoint";
+
+    private final RouteTrie<Endpoint> trie = new RouteTrie<>();
+
+    /**
+     * 为每个已编译的路由创建处理器并注册
+     */
+    public static TrieRouter of(RouteTable routes) {
+        TrieRouter router = new TrieRouter();
+        for (CompiledRoute route : routes.getRoutes()) {
+            List<HttpMethod> methods = route.getHttpMethods().stream().map(HttpMethod::valueOf).collect(Collectors.toList());
+            router.add(route.getPath(), methods, route.getBodyMode().createHandler(route.getBodyLimit()), new RouteHandler(route));
+        }
+        return router;
+    }
+
+    /**
+     * @param bodyHandler 请求体处理器，可以为null
+     */
+    public void add(String path, Collection<HttpMethod> methods, Handler<RoutingContext> bodyHandler, Handler<RoutingContext> handler) {
+        if (!trie.add(path, methods, new Endpoint(bodyHandler, handler))) {
+            log.warn("[Router Mapping] duplicated route ignored, {} {}", methods, path);
+        }
+    }
+
+    public void mount(Router router) {
+        router.route()
+                .handler(this::match)
+                .handler(TrieRouter::handleBody)
+                .handler(TrieRouter::handleRequest);
+    }
+
+    private void match(RoutingContext ctx) {
+        RouteTrie.Match<Endpoint> match = trie.find(ctx.request().method(), ctx.normalizedPath());
+        if (match == null) {
+            ctx.next();
+            return;
+        }
+        if (match.getValue() == null) {
+            ctx.fail(405);
+            return;
+        }
+        for (int i = 0; i < match.getParamCount(); i++) {
+            String name = match.getParamName(i);
+            String value = match.getDecodedParamValue(i);
+            // 与Vert.x Router一致，路径参数同时写入请求参数，不覆盖同名的查询参数
+            if (!ctx.request().params().contains(name)) {
+                ctx.request().params().add(name, value);
+            }
+            ctx.pathParams().put(name, value);
+        }
+        ctx.put(ENDPOINT_KEY, match.getValue());
+        ctx.next();
+    }
+
+    private static void handleBody(RoutingContext ctx) {
+        Endpoint endpoint = ctx.get(ENDPOINT_KEY);
+        // 未匹配时依次跳过本route的其余handler，交给后面挂载的route
+        if (endpoint == null || endpoint.bodyHandler == null) {
+            ctx.next();
+        } else {
+            endpoint.bodyHandler.handle(ctx);
+        }
+    }
+
+    private static void handleRequest(RoutingContext ctx) {
+        Endpoint endpoint = ctx.get(ENDPOINT_KEY);
+        if (endpoint == null) {
+            ctx.next();
+            return;
+        }
+        endpoint.handler.handle(ctx);
+    }
+
+    private static final class Endpoint {
+        private final Handler<RoutingContext> bodyHandler;
+        private final Handler<RoutingContext> handler;
+
+        private Endpoint(Handler<RoutingContext> bodyHandler, Handler<RoutingContext> handler) {
+            this.bodyHandler = bodyHandler;
+            this.handler = handler;
+        }
+    }
+}
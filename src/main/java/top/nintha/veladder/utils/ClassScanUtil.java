@@ -1,17 +1,24 @@
 package top.nintha.veladder.utils;
 
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.ClassFile;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
 import java.lang.annotation.Annotation;
 import java.net.JarURLConnection;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 public class ClassScanUtil {
@@ -25,66 +32,147 @@ public class ClassScanUtil {
      * @return Set
      */
     public static <A extends Annotation> Set<Class<?>> scanByAnnotation(String packageName, Class<A> annotation) {
+        return scanByAnnotation(List.of(packageName), annotation, List.of(), List.of());
+    }
+
+    /**
+     * 扫描多个包路径下所有包含指定注解的类。
+     * <p>
+     * 直接从class文件字节中读取注解，只加载匹配的类且不执行静态初始化；class文件的解析在多个核心上并行执行
+     *
+     * @param packageNames 包名
+     * @param annotation   指定的注解
+     * @param includes     类名需要匹配其中之一，为空时不限制
+     * @param excludes     类名匹配其中之一时跳过
+     * @return Set
+     */
+    public static <A extends Annotation> Set<Class<?>> scanByAnnotation(Collection<String> packageNames, Class<A> annotation,
+                                                                       Collection<Pattern> includes, Collection<Pattern> excludes) {
+        long start = System.nanoTime();
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        // 类名 -> class文件，多个包有重叠时去重
+        Map<String, ClassResource> candidates = new LinkedHashMap<>();
+        for (String packageName : packageNames) {
+            for (ClassResource resource : findClassResources(classLoader, packageName)) {
+                if (accept(resource.className, includes, excludes)) {
+                    candidates.putIfAbsent(resource.className, resource);
+                }
+            }
+        }
+        long listed = System.nanoTime();
+
+        String annotationName = annotation.getName();
+        List<String> matched = candidates.values().parallelStream()
+                .filter(resource -> hasAnnotation(resource, annotationName))
+                .map(resource -> resource.className)
+                .collect(Collectors.toList());
+
         final Set<Class<?>> classSet = new HashSet<>();
+        for (String cls : matched) {
+            try {
+                classSet.add(Class.forName(cls, false, classLoader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                log.warn("[ClassScan] failed to load class '{}'", cls, e);
+            }
+        }
+        long end = System.nanoTime();
+        log.info("[ClassScan] packages={}, annotation={}, candidates={}, matched={}, list {} ms, parse {} ms",
+                packageNames, annotation.getSimpleName(), candidates.size(), classSet.size(),
+                (listed - start) / 1_000_000, (end - listed) / 1_000_000);
+        return classSet;
+    }
+
+    private static boolean accept(String className, Collection<Pattern> includes, Collection<Pattern> excludes) {
+        for (Pattern exclude : excludes) {
+            if (exclude.matcher(className).matches()) {
+                return false;
+            }
+        }
+        if (includes.isEmpty()) {
+            return true;
+        }
+        for (Pattern include : includes) {
+            if (include.matcher(className).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解析class文件的常量池和属性表，检查类上是否有指定注解，不加载类
+     */
+    private static boolean hasAnnotation(ClassResource resource, String annotationName) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(resource.open()))) {
+            ClassFile classFile = new ClassFile(in);
+            AnnotationsAttribute visible = (AnnotationsAttribute) classFile.getAttribute(AnnotationsAttribute.visibleTag);
+            if (visible != null && visible.getAnnotation(annotationName) != null) {
+                return true;
+            }
+            AnnotationsAttribute invisible = (AnnotationsAttribute) classFile.getAttribute(AnnotationsAttribute.invisibleTag);
+            return invisible != null && invisible.getAnnotation(annotationName) != null;
+        } catch (IOException e) {
+            log.warn("[ClassScan] failed to read class file '{}'", resource.className, e);
+            return false;
+        }
+    }
+
+    private static List<ClassResource> findClassResources(ClassLoader classLoader, String packageName) {
+        List<ClassResource> resources = new ArrayList<>();
         String packageDirName = packageName.replace('.', '/');
         final Enumeration<URL> dirs;
         try {
-            dirs = Thread.currentThread().getContextClassLoader().getResources(packageDirName);
+            dirs = classLoader.getResources(packageDirName);
         } catch (IOException e) {
             log.warn("[ClassScan] failed to get package resources, packageDirName={}", packageDirName, e);
-            return classSet;
+            return resources;
         }
         while (dirs.hasMoreElements()) {
             // 获取下一个元素
             URL url = dirs.nextElement();
             // 得到协议的名称
             String protocol = url.getProtocol();
-            Set<String> classNames = Collections.emptySet();
             // 如果是以文件的形式保存在服务器上
             if ("file".equals(protocol)) {
-                classNames = scanFile(url, packageName);
+                resources.addAll(scanFile(url, packageName));
             }
             // 如果是jar包文件
             else if ("jar".equals(protocol)) {
-                classNames = scanJar(url, packageName, packageDirName);
-            }
-            for (String cls : classNames) {
-                Class<?> clazz = null;
-                try {
-                    clazz = Class.forName(cls);
-                } catch (ClassNotFoundException e) {
-                    log.warn("[ClassScan] failed to load class '{}'", cls, e);
-                }
-                if (clazz != null && null != clazz.getAnnotation(annotation)) {
-                    classSet.add(clazz);
-                }
+                resources.addAll(scanJar(url, packageDirName));
             }
-
         }
-        return classSet;
+        return resources;
     }
 
-    private static Set<String> scanFile(URL url, String packageName) {
+    private static List<ClassResource> scanFile(URL url, String packageName) {
         // 获取包的物理路径
         String filePath = URLDecoder.decode(url.getFile(), StandardCharsets.UTF_8);
-        // 以文件的方式扫描整个包下的文件 并添加到集合中
-        File dir = new File(filePath);
-        Set<String> packages = new HashSet<>();
-        fetchFilePackages(dir, packageName, packages);
-        return packages;
+        Path dir = Paths.get(filePath);
+        try (Stream<Path> paths = Files.walk(dir)) {
+            return paths.filter(path -> path.toString().endsWith(CLASS_FILE_SUFFIX) && Files.isRegularFile(path))
+                    .map(path -> {
+                        String relative = dir.relativize(path).toString().replace(File.separatorChar, '.');
+                        String className = packageName + '.' + relative.substring(0, relative.length() - CLASS_FILE_SUFFIX.length());
+                        return new ClassResource(className, () -> Files.newInputStream(path));
+                    })
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.warn("[ClassScan] failed to walk directory {}", dir, e);
+            return List.of();
+        }
     }
 
-    private static Set<String> scanJar(URL url, String packageName, String packageDirName) {
+    private static List<ClassResource> scanJar(URL url, String packageDirName) {
         JarFile jar;
         try {
             JarURLConnection urlConnection = (JarURLConnection) url.openConnection();
             jar = urlConnection.getJarFile();
         } catch (IOException e) {
             log.warn("[ClassScan] failed to resolve jar entry", e);
-            return Set.of();
+            return List.of();
         }
 
-        Set<String> classNames = new HashSet<>();
+        List<ClassResource> resources = new ArrayList<>();
         Enumeration<JarEntry> entries = jar.entries();
         while (entries.hasMoreElements()) {
             // 获取jar里的一个实体 可以是目录 和一些jar包里的其他文件 如META-INF等文件
@@ -95,37 +183,35 @@ public class ClassScanUtil {
                 // 获取后面的字符串
                 name = name.substring(1);
             }
-            // 如果前半部分和定义的包名相同
-            if (name.startsWith(packageDirName)) {
-                int idx = name.lastIndexOf('/');
-                // 如果以"/"结尾 是一个包
-                if (idx != -1) {
-                    // 获取包名 把"/"替换成"."
-                    packageName = name.substring(0, idx).replace('/', '.');
-                }
-                // 如果可以迭代下去 并且是一个包
-                // 如果是一个.class文件 而且不是目录
-                if (name.endsWith(".class") && !entry.isDirectory()) {
-                    // 去掉后面的".class" 获取真正的类名
-                    String className = name.substring(packageName.length() + 1, name.length() - 6);
-                    classNames.add(packageName + '.' + className);
-                }
+            // 如果前半部分和定义的包名相同，并且是一个.class文件 而且不是目录，包名后加/避免匹配到同名前缀的兄弟包
+            if (name.startsWith(packageDirName + "/") && name.endsWith(CLASS_FILE_SUFFIX) && !entry.isDirectory()) {
+                // 去掉后面的".class" 获取真正的类名
+                String className = name.substring(0, name.length() - CLASS_FILE_SUFFIX.length()).replace('/', '.');
+                // JarFile支持多线程并发读取不同的entry
+                resources.add(new ClassResource(className, () -> jar.getInputStream(entry)));
             }
         }
-        return classNames;
+        return resources;
+    }
+
+    private interface StreamOpener {
+        InputStream open() throws IOException;
     }
 
     /**
-     * 查找所有的文件
+     * 待检查的class文件
      */
-    private static void fetchFilePackages(File dir, String packageName, Set<String> packages) {
-        if (dir.isDirectory()) {
-            for (File f : Objects.requireNonNull(dir.listFiles())) {
-                fetchFilePackages(f, String.format("%s.%s", packageName, f.getName()), packages);
-            }
-        } else if (packageName.endsWith(CLASS_FILE_SUFFIX)) {
-            packages.add(packageName.substring(0, packageName.length() - CLASS_FILE_SUFFIX.length()));
+    private static final class ClassResource {
+        private final String className;
+        private final StreamOpener opener;
+
+        private ClassResource(String className, StreamOpener opener) {
+            this.className = className;
+            this.opener = opener;
         }
-    }
 
+        private InputStream open() throws IOException {
+            return opener.open();
+        }
+    }
 }
@@ -1,9 +1,17 @@
 package top.nintha.veladder.utils;
 
 import io.reactivex.Single;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import top.nintha.veladder.annotations.BlockingService;
+import top.nintha.veladder.worker.BlockingPool;
+import top.nintha.veladder.worker.BlockingPools;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 public class Singles {
@@ -11,13 +19,17 @@ public class Singles {
      * async converter, call by CompletableFuture::whenComplete
      */
     public static <T> Single<T> fromCompletableFuture(CompletableFuture<T> future) {
-        return Single.create(emitter -> future.whenComplete((value, error) -> {
-            if (error == null) {
-                emitter.onSuccess(value);
-            } else {
-                emitter.onError(error);
-            }
-        }));
+        return Single.create(emitter -> {
+            // 取消订阅时同时取消future，依赖它的后续阶段也会结束
+            emitter.setCancellable(() -> future.cancel(true));
+            future.whenComplete((value, error) -> {
+                if (error == null) {
+                    emitter.onSuccess(value);
+                } else {
+                    emitter.onError(error);
+                }
+            });
+        });
     }
 
     public static <T> Single<T> fromVertxFuture(Future<T> future){
@@ -30,8 +42,86 @@ public class Singles {
         }));
     }
 
+    /**
+     * 在默认worker池中执行阻塞操作，结果回到订阅时所在的event loop；
+     * 不在Vert.x线程上订阅时退回到CompletableFuture的公共线程池
+     */
     public static <T> Single<T> supplyAsync(Supplier<T> supplier){
-        return fromCompletableFuture(CompletableFuture.supplyAsync(supplier));
+        return Single.defer(() -> {
+            Context context = Vertx.currentContext();
+            if (context == null) {
+                return fromCompletableFuture(CompletableFuture.supplyAsync(supplier));
+            }
+            return submit(BlockingPools.get(context.owner(), BlockingService.DEFAULT_POOL), supplier::get);
+        });
+    }
+
+    /**
+     * 调用{@link BlockingService}服务，按服务类上声明的worker池执行
+     */
+    public static <S, T> Single<T> supplyBlocking(S service, Function<S, T> call) {
+        return Single.defer(() -> {
+            Context context = Vertx.currentContext();
+            if (context == null) {
+                return fromCompletableFuture(CompletableFuture.supplyAsync(() -> call.apply(service)));
+            }
+            return submit(BlockingPools.forService(context.owner(), service.getClass()), () -> call.apply(service));
+        });
+    }
+
+    /**
+     * 取消订阅时，还在排队的任务不再执行，正在执行的任务被中断
+     */
+    private static <T> Single<T> submit(BlockingPool pool, Callable<T> task) {
+        return Single.create(emitter -> {
+            CancellableTask<T> cancellable = new CancellableTask<>(task);
+            emitter.setCancellable(cancellable::cancel);
+            pool.submit(cancellable).onComplete(ar -> {
+                if (ar.succeeded()) {
+                    emitter.onSuccess(ar.result());
+                } else {
+                    emitter.tryOnError(ar.cause());
+                }
+            });
+        });
+    }
+
+    private static final class CancellableTask<T> implements Callable<T> {
+        private final Callable<T> task;
+        private boolean cancelled;
+        private Thread runner;
+
+        private CancellableTask(Callable<T> task) {
+            this.task = task;
+        }
+
+        @Override
+        public T call() throws Exception {
+            synchronized (this) {
+                if (cancelled) {
+                    throw new CancellationException("task cancelled before start");
+                }
+                runner = Thread.currentThread();
+            }
+            try {
+                return task.call();
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                    // 取消时设置的中断标记不能带到worker线程的下一个任务
+                    if (cancelled) {
+                        Thread.interrupted();
+                    }
+                }
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
     }
 
 }
@@ -0,0 +1,253 @@
+package top.nintha.veladder.worker;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 统计controller方法在event loop上同步执行的耗时，超过预算时记为一次阻塞。
+ * <p>
+ * 后台线程按预算的一半为周期检查正在执行的调用，超时的调用在结束前采样一次所在线程的栈，
+ * 报告按阻塞次数排序并附带最近一次采样的栈。
+ * 开启自动切换时，阻塞次数达到阈值的路由后续在worker池中执行。
+ * <p>
+ * 后台线程在{@link #start()}时启动，多个verticle实例共享同一个检测器时各自调用一次start和close，
+ * 最后一个close时停止；未启动时仍然统计阻塞次数，但没有栈采样
+ */
+@Slf4j
+public final class BlockingDetector {
+    private final BlockingDetectorOptions options;
+    private final long budgetNanos;
+    private final Map<String, Probe> probes = new ConcurrentHashMap<>();
+    /**
+     * 每个执行过路由的线程一个槽位，后台线程遍历检查
+     */
+    private final List<Slot> slots = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Slot> currentSlot = ThreadLocal.withInitial(this::newSlot);
+    /**
+     * 未调用start或已全部close时为null
+     */
+    private ScheduledExecutorService watchdog;
+    private int starts;
+
+    public BlockingDetector(BlockingDetectorOptions options) {
+        this.options = options;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(options.getBudgetMillis());
+    }
+
+    /**
+     * 按当前系统属性创建，未开启时返回null
+     */
+    public static BlockingDetector fromSystemProperties() {
+        BlockingDetectorOptions options = BlockingDetectorOptions.fromSystemProperties();
+        if (!options.isEnabled()) {
+            return null;
+        }
+        log.info("[BlockingDetector] enabled, budget={}ms, promoteAfter={}", options.getBudgetMillis(), options.getPromoteAfter());
+        return new BlockingDetector(options);
+    }
+
+    /**
+     * 第一次调用时启动后台采样线程
+     */
+    public synchronized void start() {
+        if (starts++ > 0) {
+            return;
+        }
+        watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "veladder-blocking-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, budgetNanos / 2);
+        watchdog.scheduleAtFixedRate(this::sample, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 与{@link #start()}成对调用，全部close后停止后台线程
+     */
+    public synchronized void close() {
+        if (starts == 0 || --starts > 0) {
+            return;
+        }
+        watchdog.shutdownNow();
+        watchdog = null;
+    }
+
+    synchronized boolean isRunning() {
+        return watchdog != null;
+    }
+
+    public BlockingDetectorOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * 获取路由的检测探针，同名只创建一次
+     *
+     * @param name      路由名称
+     * @param promotable 是否允许自动切换到worker池
+     */
+    public Probe probe(String name, boolean promotable) {
+        return probes.computeIfAbsent(name, n -> new Probe(n, promotable));
+    }
+
+    /**
+     * 按阻塞次数、最长耗时排序的前N个路由
+     */
+    public List<Probe> topOffenders() {
+        return probes.values().stream()
+                .filter(p -> p.getViolations() > 0)
+                .sorted(Comparator.comparingLong(Probe::getViolations).thenComparingLong(Probe::getMaxNanos).reversed())
+                .limit(options.getTopN())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 报告内容，可以直接编码为JSON
+     */
+    public List<Map<String, Object>> report() {
+        List<Map<String, Object>> report = new ArrayList<>();
+        for (Probe probe : topOffenders()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("route", probe.getName());
+            item.put("violations", probe.getViolations());
+            item.put("invocations", probe.getInvocations());
+            item.put("maxMillis", probe.getMaxNanos() / 1e6);
+            item.put("promoted", probe.isPromoted());
+            StackTraceElement[] stack = probe.getSampleStack();
+            item.put("sampleStack", stack == null ? List.of() : Arrays.stream(stack).map(String::valueOf).collect(Collectors.toList()));
+            report.add(item);
+        }
+        return report;
+    }
+
+    private Slot newSlot() {
+        Slot slot = new Slot(Thread.currentThread());
+        slots.add(slot);
+        return slot;
+    }
+
+    /**
+     * 后台线程对超时且尚未采样的调用采样一次栈
+     */
+    private void sample() {
+        long now = System.nanoTime();
+        for (Slot slot : slots) {
+            Probe probe = slot.probe;
+            long seq = slot.seq;
+            if (probe == null || now - slot.start <= budgetNanos || slot.sampledSeq == seq) {
+                continue;
+            }
+            StackTraceElement[] stack = slot.thread.getStackTrace();
+            // 采样期间调用可能已经结束，序号变化则丢弃
+            if (slot.seq == seq && slot.probe == probe) {
+                slot.sampledStack = stack;
+                slot.sampledSeq = seq;
+            }
+        }
+    }
+
+    /**
+     * 线程执行路由时的状态，只由所属线程写入，后台线程读取
+     */
+    private static final class Slot {
+        private final Thread thread;
+        private volatile Probe probe;
+        private volatile long start;
+        private volatile long seq;
+        private volatile long sampledSeq = -1;
+        private volatile StackTraceElement[] sampledStack;
+
+        private Slot(Thread thread) {
+            this.thread = thread;
+        }
+    }
+
+    /**
+     * 单个路由的检测探针，在路由同步执行的前后调用{@link #enter()}和{@link #exit()}
+     */
+    public final class Probe {
+        private final String name;
+        private final boolean promotable;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder violations = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private volatile StackTraceElement[] sampleStack;
+        private volatile boolean promoted;
+
+        private Probe(String name, boolean promotable) {
+            this.name = name;
+            this.promotable = promotable;
+        }
+
+        public void enter() {
+            Slot slot = currentSlot.get();
+            slot.start = System.nanoTime();
+            slot.seq++;
+            slot.probe = this;
+        }
+
+        public void exit() {
+            Slot slot = currentSlot.get();
+            long elapsed = System.nanoTime() - slot.start;
+            slot.probe = null;
+            invocations.increment();
+            if (elapsed > budgetNanos) {
+                onViolation(elapsed, slot.sampledSeq == slot.seq ? slot.sampledStack : null);
+            }
+        }
+
+        private void onViolation(long elapsed, StackTraceElement[] stack) {
+            violations.increment();
+            maxNanos.accumulateAndGet(elapsed, Math::max);
+            if (stack != null) {
+                sampleStack = stack;
+            }
+            long count = violations.sum();
+            // 按1、2、4、8...次输出日志，避免持续阻塞时刷屏
+            if (Long.bitCount(count) == 1) {
+                log.warn("[BlockingDetector] {} blocked the event loop for {} ms, violations={}", name, elapsed / 1_000_000, count);
+            }
+            if (promotable && !promoted && options.getPromoteAfter() > 0 && count >= options.getPromoteAfter()) {
+                promoted = true;
+                log.warn("[BlockingDetector] {} promoted to worker pool after {} violations", name, count);
+            }
+        }
+
+        public BlockingDetector getDetector() {
+            return BlockingDetector.this;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getInvocations() {
+            return invocations.sum();
+        }
+
+        public long getViolations() {
+            return violations.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public StackTraceElement[] getSampleStack() {
+            return sampleStack;
+        }
+
+        /**
+         * 是否已自动切换到worker池执行
+         */
+        public boolean isPromoted() {
+            return promoted;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package top.nintha.veladder.worker;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * event loop阻塞检测配置，默认从系统属性 veladder.blocking-detector.* 读取
+ */
+@Data
+@Accessors(chain = true)
+public class BlockingDetectorOptions {
+    public static final String PREFIX = "veladder.blocking-detector";
+
+    private boolean enabled;
+    /**
+     * 单次在event loop上同步执行的耗时上限
+     */
+    private long budgetMillis = 10;
+    /**
+     * 报告中保留的路由数
+     */
+    private int topN = 10;
+    /**
+     * 超时次数达到该值后，后续请求改为在默认worker池中执行，小于等于0时不自动切换
+     */
+    private int promoteAfter;
+    /**
+     * 查看报告的接口路径
+     */
+    private String path = "/debug/blocking";
+
+    public static BlockingDetectorOptions fromSystemProperties() {
+        return new BlockingDetectorOptions()
+                .setEnabled(Boolean.getBoolean(PREFIX))
+                .setBudgetMillis(Long.getLong(PREFIX + ".budget-ms", 10))
+                .setTopN(Integer.getInteger(PREFIX + ".top", 10))
+                .setPromoteAfter(Integer.getInteger(PREFIX + ".promote-after", 0))
+                .setPath(System.getProperty(PREFIX + ".path", "/debug/blocking"));
+    }
+}
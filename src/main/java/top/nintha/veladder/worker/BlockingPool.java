@@ -0,0 +1,180 @@
+package top.nintha.veladder.worker;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 有界的命名worker池，基于Vert.x {@link WorkerExecutor}或虚拟线程执行器，额外限制排队数量并统计执行情况。
+ * <p>
+ * 在event loop上提交时，返回的Future回调仍在该event loop上执行
+ */
+@Slf4j
+public class BlockingPool {
+    private final String name;
+    private final WorkerExecutor executor;
+    /**
+     * 虚拟线程执行器，不为null时代替executor
+     */
+    private final ExecutorService virtualExecutor;
+    private final BlockingPoolOptions options;
+    private final int maxPending;
+
+    /**
+     * 排队与执行中的任务数
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+
+    BlockingPool(String name, WorkerExecutor executor, BlockingPoolOptions options) {
+        this(name, executor, null, options);
+    }
+
+    BlockingPool(String name, WorkerExecutor executor, ExecutorService virtualExecutor, BlockingPoolOptions options) {
+        this.name = name;
+        this.executor = executor;
+        this.virtualExecutor = virtualExecutor;
+        this.options = options;
+        this.maxPending = options.getSize() + options.getQueueCapacity();
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            rejected.increment();
+            // event loop上直接执行会阻塞该loop上的全部连接，仍然拒绝
+            if (options.getRejection() == RejectionPolicy.CALLER_RUNS && !Context.isOnEventLoopThread()) {
+                return Future.future(promise -> run(task, promise));
+            }
+            return Future.failedFuture(new RejectedExecutionException("worker pool '" + name + "' is saturated"));
+        }
+        submitted.increment();
+        long submitTime = System.nanoTime();
+        if (virtualExecutor != null) {
+            return submitVirtual(task, submitTime);
+        }
+        return executor.executeBlocking(promise -> execute(task, submitTime, promise), false);
+    }
+
+    /**
+     * 虚拟线程上执行，完成后切回提交时所在的context
+     */
+    private <T> Future<T> submitVirtual(Callable<T> task, long submitTime) {
+        Context context = Vertx.currentContext();
+        Promise<T> promise = Promise.promise();
+        try {
+            virtualExecutor.execute(() -> {
+                Promise<T> outcome = Promise.promise();
+                execute(task, submitTime, outcome);
+                if (context == null) {
+                    outcome.future().onComplete(promise);
+                } else {
+                    context.runOnContext(v -> outcome.future().onComplete(promise));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            rejected.increment();
+            promise.fail(e);
+        }
+        return promise.future();
+    }
+
+    private <T> void execute(Callable<T> task, long submitTime, Promise<T> promise) {
+        waitNanos.add(System.nanoTime() - submitTime);
+        active.incrementAndGet();
+        // 先更新统计再完成promise，保证回调中读取到的统计已包含本次任务
+        Promise<T> outcome = Promise.promise();
+        try {
+            run(task, outcome);
+        } finally {
+            active.decrementAndGet();
+            pending.decrementAndGet();
+        }
+        outcome.future().onComplete(promise);
+    }
+
+    private <T> void run(Callable<T> task, Promise<T> promise) {
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = task.call();
+        } catch (Throwable e) {
+            failed.increment();
+            runNanos.add(System.nanoTime() - start);
+            promise.fail(e);
+            return;
+        }
+        completed.increment();
+        runNanos.add(System.nanoTime() - start);
+        promise.complete(result);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isVirtual() {
+        return virtualExecutor != null;
+    }
+
+    public BlockingPoolOptions getOptions() {
+        return options;
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    /**
+     * 排队等待执行的任务数
+     */
+    public int getQueued() {
+        return Math.max(0, pending.get() - active.get());
+    }
+
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    public long getRunNanos() {
+        return runNanos.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BlockingPool[%s%s] size=%d, active=%d, queued=%d, submitted=%d, completed=%d, failed=%d, rejected=%d",
+                name, isVirtual() ? ", virtual" : "", options.getSize(), getActive(), getQueued(), getSubmitted(), getCompleted(), getFailed(), getRejected());
+    }
+}
@@ -0,0 +1,45 @@
+package top.nintha.veladder.worker;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * worker池配置，默认从系统属性 veladder.pool.&lt;name&gt;.size/queue/rejection/virtual 读取，
+ * veladder.virtual-threads=true 时所有池默认使用虚拟线程
+ */
+@Data
+@Accessors(chain = true)
+public class BlockingPoolOptions {
+    public static final int DEFAULT_SIZE = 20;
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+    /**
+     * 虚拟线程模式下size表示同时执行的请求上限
+     */
+    public static final int DEFAULT_VIRTUAL_SIZE = 10000;
+    public static final String VIRTUAL_THREADS_PROPERTY = "veladder.virtual-threads";
+
+    private int size = DEFAULT_SIZE;
+    /**
+     * 除正在执行的任务外最多允许排队的任务数
+     */
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private RejectionPolicy rejection = RejectionPolicy.ABORT;
+    /**
+     * 每个任务一个虚拟线程，JDK 21以下退回到平台线程池
+     */
+    private boolean virtualThreads;
+
+    public static BlockingPoolOptions fromSystemProperties(String poolName) {
+        String prefix = "veladder.pool." + poolName + ".";
+        boolean virtual = Boolean.parseBoolean(System.getProperty(prefix + "virtual", System.getProperty(VIRTUAL_THREADS_PROPERTY, "false")));
+        BlockingPoolOptions options = new BlockingPoolOptions()
+                .setVirtualThreads(virtual)
+                .setSize(Integer.getInteger(prefix + "size", virtual ? DEFAULT_VIRTUAL_SIZE : DEFAULT_SIZE))
+                .setQueueCapacity(Integer.getInteger(prefix + "queue", DEFAULT_QUEUE_CAPACITY));
+        String rejection = System.getProperty(prefix + "rejection");
+        if (rejection != null && !rejection.isBlank()) {
+            options.setRejection(RejectionPolicy.valueOf(rejection.trim().toUpperCase()));
+        }
+        return options;
+    }
+}
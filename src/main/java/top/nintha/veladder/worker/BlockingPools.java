@@ -0,0 +1,45 @@
+package top.nintha.veladder.worker;
+
+import io.vertx.core.Vertx;
+import lombok.extern.slf4j.Slf4j;
+import top.nintha.veladder.annotations.BlockingService;
+
+import java.util.*;
+
+/**
+ * 按名称获取worker池，同一个Vertx实例内同名的池只创建一次，供所有verticle实例共享
+ */
+@Slf4j
+public final class BlockingPools {
+    private static final Map<Vertx, Map<String, BlockingPool>> POOLS = new WeakHashMap<>();
+
+    private BlockingPools() {
+    }
+
+    public static synchronized BlockingPool get(Vertx vertx, String name) {
+        return POOLS.computeIfAbsent(vertx, v -> new HashMap<>()).computeIfAbsent(name, n -> {
+            BlockingPoolOptions options = BlockingPoolOptions.fromSystemProperties(n);
+            if (options.isVirtualThreads()) {
+                if (VirtualThreads.isSupported()) {
+                    log.info("[BlockingPools] pool '{}' runs on virtual threads, max in-flight {}", n, options.getSize());
+                    return new BlockingPool(n, null, VirtualThreads.newExecutor(n), options);
+                }
+                log.warn("[BlockingPools] virtual threads require JDK 21+, pool '{}' falls back to platform threads", n);
+                options.setSize(Math.min(options.getSize(), BlockingPoolOptions.DEFAULT_SIZE));
+            }
+            return new BlockingPool(n, vertx.createSharedWorkerExecutor(n, options.getSize()), options);
+        });
+    }
+
+    /**
+     * 根据服务类上的{@link BlockingService}选择worker池，未标注时使用默认池
+     */
+    public static BlockingPool forService(Vertx vertx, Class<?> serviceClass) {
+        BlockingService anno = serviceClass.getAnnotation(BlockingService.class);
+        return get(vertx, anno == null ? BlockingService.DEFAULT_POOL : anno.value());
+    }
+
+    public static synchronized List<BlockingPool> all(Vertx vertx) {
+        return new ArrayList<>(POOLS.getOrDefault(vertx, Collections.emptyMap()).values());
+    }
+}
@@ -0,0 +1,15 @@
+package top.nintha.veladder.worker;
+
+/**
+ * worker池排队已满时的处理方式
+ */
+public enum RejectionPolicy {
+    /**
+     * 立即失败，抛出{@link java.util.concurrent.RejectedExecutionException}，接口返回503
+     */
+    ABORT,
+    /**
+     * 在调用线程上直接执行；在event loop上提交时与{@link #ABORT}相同，避免阻塞event loop
+     */
+    CALLER_RUNS
+}
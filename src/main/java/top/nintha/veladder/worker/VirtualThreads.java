@@ -0,0 +1,93 @@
+package top.nintha.veladder.worker;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 虚拟线程支持，项目仍以Java 11编译，运行在JDK 21及以上时通过方法句柄调用 {@code Thread.ofVirtual()}
+ */
+@Slf4j
+public final class VirtualThreads {
+    private static final MethodHandle OF_VIRTUAL;
+    private static final MethodHandle NAME;
+    private static final MethodHandle FACTORY;
+    private static final MethodHandle IS_VIRTUAL;
+    private static final MethodHandle PER_TASK_EXECUTOR;
+
+    static {
+        MethodHandle ofVirtual = null, name = null, factory = null, isVirtual = null, perTask = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Class<?> ofVirtualClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualClass));
+            name = lookup.findVirtual(builderClass, "name", MethodType.methodType(builderClass, String.class, long.class));
+            factory = lookup.findVirtual(builderClass, "factory", MethodType.methodType(ThreadFactory.class));
+            isVirtual = lookup.findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+            perTask = lookup.findStatic(Executors.class, "newThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+            probe(ofVirtual, factory);
+        } catch (Throwable e) {
+            // JDK 19/20未开启--enable-preview时方法存在但调用失败
+            log.debug("[VirtualThreads] not supported by current JVM {}: {}", System.getProperty("java.version"), e.toString());
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+        IS_VIRTUAL = isVirtual;
+        PER_TASK_EXECUTOR = perTask;
+    }
+
+    /**
+     * 实际创建并启动一个虚拟线程，失败时视为不支持
+     */
+    private static void probe(MethodHandle ofVirtual, MethodHandle factory) throws Throwable {
+        ThreadFactory threadFactory = (ThreadFactory) factory.invoke(ofVirtual.invoke());
+        Thread thread = threadFactory.newThread(() -> {
+        });
+        thread.start();
+        thread.join();
+    }
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * 每个任务一个虚拟线程的执行器，线程名为 name-序号
+     */
+    public static ExecutorService newExecutor(String name) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("virtual threads require JDK 21+, current " + System.getProperty("java.version"));
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke();
+            builder = NAME.invoke(builder, name + "-", 0L);
+            ThreadFactory threadFactory = (ThreadFactory) FACTORY.invoke(builder);
+            return (ExecutorService) PER_TASK_EXECUTOR.invoke(threadFactory);
+        } catch (Throwable e) {
+            throw new IllegalStateException("failed to create virtual thread executor", e);
+        }
+    }
+
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invoke(thread);
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package top.nintha.veladder;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import top.nintha.veladder.batch.BatchOptions;
+import top.nintha.veladder.config.ServerOptions;
+import top.nintha.veladder.http.CompressionOptions;
+import top.nintha.veladder.limit.LimitOptions;
+import top.nintha.veladder.route.DispatchMode;
+import top.nintha.veladder.route.RouteCompiler;
+import top.nintha.veladder.route.RouteTable;
+import top.nintha.veladder.route.RouterMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+@ExtendWith(VertxExtension.class)
+class AppLauncherTest {
+    private final int port = ThreadLocalRandom.current().nextInt(12000, 22000);
+
+    @Test
+    void deployMultipleInstances(Vertx vertx, VertxTestContext ctx) {
+        WebClient client = WebClient.create(vertx);
+        AppLauncher.deploy(vertx, port, 4)
+                .compose(id -> {
+                    Assertions.assertEquals(1, vertx.deploymentIDs().size());
+                    // CompositeFuture.all只接受List<Future>
+                    @SuppressWarnings("rawtypes")
+                    List<Future> requests = new ArrayList<>();
+                    for (int i = 0; i < 16; i++) {
+                        requests.add(client.get(port, "127.0.0.1", "/hello/world").send());
+                    }
+                    return CompositeFuture.all(requests);
+                })
+                .onComplete(ctx.succeeding(all -> ctx.verify(() -> {
+                    for (int i = 0; i < all.size(); i++) {
+                        HttpResponse<?> response = all.resultAt(i);
+                        Assertions.assertEquals("hello world", response.bodyAsString().toLowerCase());
+                    }
+                    ctx.completeNow();
+                })));
+    }
+
+    @Test
+    void metricsEndpoint(Vertx vertx, VertxTestContext ctx) throws Exception {
+        WebClient client = WebClient.create(vertx);
+        RouteTable routes = RouteTable.scan("top.nintha.veladder.controller", new RouteCompiler(DispatchMode.METHOD_HANDLE, true));
+        vertx.deployVerticle(new AppLauncher(port, routes))
+                .compose(id -> client.get(port, "127.0.0.1", "/hello/world").send())
+                .compose(r -> client.get(port, "127.0.0.1", "/rx/hello/world").send())
+                .compose(r -> client.get(port, "127.0.0.1", "/rx/users/default").send())
+                .compose(r -> client.get(port, "127.0.0.1", "/rx/users/default").send())
+                .compose(r -> client.get(port, "127.0.0.1", "/metrics").send())
+                .onComplete(ctx.succeeding(response -> ctx.verify(() -> {
+                    String body = response.bodyAsString();
+                    Assertions.assertTrue(body.contains("veladder_requests_total{route=\"/hello/world\",method=\"*\"} 1"), body);
+                    Assertions.assertTrue(body.contains("veladder_responses_total{route=\"/hello/world\",method=\"*\",status=\"2xx\"} 1"), body);
+                    Assertions.assertTrue(body.contains("veladder_request_duration_seconds_count{route=\"/rx/hello/world\",method=\"*\",phase=\"async\"} 1"), body);
+                    Assertions.assertTrue(body.contains("veladder_request_duration_seconds_count{route=\"/hello/world\",method=\"*\",phase=\"serialization\"} 1"), body);
+                    Assertions.assertTrue(body.contains("veladder_cache_requests_total{route=\"/rx/users/default\",method=\"GET\",result=\"hit\"} 1"), body);
+                    Assertions.assertTrue(body.contains("veladder_cache_requests_total{route=\"/rx/users/default\",method=\"GET\",result=\"miss\"} 1"), body);
+                    ctx.completeNow();
+                })));
+    }
+
+    @Test
+    void trieRouterFallsThrough(Vertx vertx, VertxTestContext ctx) throws Exception {
+        WebClient client = WebClient.create(vertx);
+        RouteTable routes = RouteTable.scan("top.nintha.veladder.controller", new RouteCompiler(DispatchMode.METHOD_HANDLE, true));
+        System.setProperty(RouterMode.PROPERTY, "trie");
+        vertx.deployVerticle(new AppLauncher(port, routes))
+                .onComplete(ar -> System.clearProperty(RouterMode.PROPERTY))
+                .compose(id -> CompositeFuture.all(
+                        client.get(port, "127.0.0.1", "/hello/world").send(),
+                        client.get(port, "127.0.0.1", "/no/such/path").send(),
+                        client.get(port, "127.0.0.1", "/metrics").send()))
+                .onComplete(ctx.succeeding(all -> ctx.verify(() -> {
+                    Assertions.assertEquals(200, all.<HttpResponse<?>>resultAt(0).statusCode());
+                    Assertions.assertEquals(404, all.<HttpResponse<?>>resultAt(1).statusCode());
+                    // 挂载在前缀树之后的route
+                    HttpResponse<?> metrics = all.resultAt(2);
+                    Assertions.assertEquals(200, metrics.statusCode());
+                    Assertions.assertTrue(metrics.bodyAsString().contains("veladder_requests_total"), metrics.bodyAsString());
+                    ctx.completeNow();
+                })));
+    }
+
+    @Test
+    void compressionThreshold(Vertx vertx, VertxTestContext ctx) throws Exception {
+        HttpClient client = vertx.createHttpClient();
+        RouteTable routes = RouteTable.scan("top.nintha.veladder.controller", new RouteCompiler());
+        ServerOptions options = new ServerOptions().setPort(port)
+                .setCompression(new CompressionOptions().setEnabled(true).setThreshold(64));
+        String text = "a".repeat(256);
+        vertx.deployVerticle(new AppLauncher(options, routes))
+                .compose(id -> CompositeFuture.all(
+                        contentEncoding(client, "/echo/text?text=" + text),
+                        contentEncoding(client, "/hello/world"),
+                        contentEncoding(client, "/rx/file/download"),
+                        contentEncoding(client, "/rx/users/stream?count=3")))
+                .onComplete(ctx.succeeding(all -> ctx.verify(() -> {
+                    Assertions.assertEquals("gzip", all.resultAt(0));
+                    // 小于阈值
+                    Assertions.assertNull(all.resultAt(1));
+                    // 已压缩的内容类型
+                    Assertions.assertNull(all.resultAt(2));
+                    // 未知长度的流式响应
+                    Assertions.assertEquals("gzip", all.resultAt(3));
+                    ctx.completeNow();
+                })));
+    }
+
+    @Test
+    void compressedETag(Vertx vertx, VertxTestContext ctx) throws Exception {
+        HttpClient client = vertx.createHttpClient();
+        RouteTable routes = RouteTable.scan("top.nintha.veladder.controller", new RouteCompiler());
+        ServerOptions options = new ServerOptions().setPort(port)
+                .setCompression(new CompressionOptions().setEnabled(true).setThreshold(64));
+        String uri = "/echo/text?text=" + "a".repeat(256);
+        vertx.deployVerticle(new AppLauncher(options, routes))
+                .compose(id -> client.request(HttpMethod.GET, port, "127.0.0.1", uri))
+                .compose(req -> req.putHeader("Accept-Encoding", "gzip").send())
+                .compose(first -> first.body().map(body -> first.getHeader("ETag")))
+                .compose(etag -> {
+                    // 压缩后的表示使用不同的强ETag
+                    Assertions.assertTrue(etag.endsWith("-gzip\""), etag);
+                    return client.request(HttpMethod.GET, port, "127.0.0.1", uri)
+                            .compose(req -> req.putHeader("Accept-Encoding", "gzip").putHeader("If-None-Match", etag).send());
+                })
+                .onComplete(ctx.succeeding(second -> ctx.verify(() -> {
+                    Assertions.assertEquals(304, second.statusCode());
+                    Assertions.assertEquals("accept-encoding", second.getHeader("Vary").toLowerCase());
+                    ctx.completeNow();
+                })));
+    }
+
+    @Test
+    void batch(Vertx vertx, VertxTestContext ctx) throws Exception {
+        WebClient client = WebClient.create(vertx);
+        RouteTable routes = RouteTable.scan("top.nintha.veladder.controller", new RouteCompiler(DispatchMode.METHOD_HANDLE, true));
+        ServerOptions options = new ServerOptions().setPort(port).setBatch(new BatchOptions().setEnabled(true));
+        JsonArray items = new JsonArray()
+                .add(new JsonObject().put("path", "/echo/object").put("params", new JsonObject().put("text", "a").put("code", 1)))
+                .add(new JsonObject().put("method", "POST").put("path", "/post/body").put("body", new JsonObject().put("name", "b")))
+                .add(new JsonObject().put("method", "GET").put("path", "/rx/users/default"))
+                .add(new JsonObject().put("path", "/hello/path/variable/abc/1?unused=1"))
+                .add(new JsonObject().put("path", "/not/exists"))
+                .add(new JsonObject().put("method", "GET").put("path", "/rx/users/stream"))
+                .add(new JsonObject().put("method", "GET").put("path", "/async/users/timeout"))
+                .add(new JsonObject().put("method", "POST").put("path", "/post/created").put("body", new JsonObject().put("id", 7)));
+        vertx.deployVerticle(new AppLauncher(options, routes))
+                .compose(id -> client.post(port, "127.0.0.1", "/batch").sendJson(items))
+                .compose(response -> {
+                    JsonArray results = response.bodyAsJsonArray();
+                    Assertions.assertEquals(items.size(), results.size());
+                    Assertions.assertEquals("a", results.getJsonObject(0).getJsonObject("body").getString("text"));
+                    Assertions.assertEquals(1, results.getJsonObject(0).getJsonObject("body").getInteger("code"));
+                    Assertions.assertEquals("b", results.getJsonObject(1).getJsonObject("body").getString("name"));
+                    Assertions.assertEquals(200, results.getJsonObject(2).getInteger("status"));
+                    Assertions.assertNotNull(results.getJsonObject(2).getJsonObject("body"));
+                    Assertions.assertEquals("abc1", results.getJsonObject(3).getString("body"));
+                    Assertions.assertEquals(404, results.getJsonObject(4).getInteger("status"));
+                    Assertions.assertEquals(400, results.getJsonObject(5).getInteger("status"));
+                    Assertions.assertEquals(504, results.getJsonObject(6).getInteger("status"));
+                    Assertions.assertNull(results.getJsonObject(0).getJsonObject("headers"));
+                    Assertions.assertEquals(201, results.getJsonObject(7).getInteger("status"));
+                    Assertions.assertEquals("/query/bean?id=7", results.getJsonObject(7).getJsonObject("headers").getString("Location"));
+                    Assertions.assertEquals(7, results.getJsonObject(7).getJsonObject("body").getInteger("id"));
+                    for (int i = 0; i < results.size(); i++) {
+                        Assertions.assertTrue(results.getJsonObject(i).getLong("durationMicros") >= 0);
+                    }
+                    return client.get(port, "127.0.0.1", "/metrics").send();
+                })
+                .onComplete(ctx.succeeding(response -> ctx.verify(() -> {
+                    String body = response.bodyAsString();
+                    Assertions.assertTrue(body.contains("veladder_requests_total{route=\"/post/body\",method=\"POST\"} 1"), body);
+                    ctx.completeNow();
+                })));
+    }
+
+    @Test
+    void shedWhenSaturated(Vertx vertx, VertxTestContext ctx) throws Exception {
+        WebClient client = WebClient.create(vertx);
+        LimitOptions limits = new LimitOptions().setRouteLimits(Map.of("/rx/users/default", 1)).setRetryAfterSeconds(2);
+        RouteTable routes = RouteTable.scan("top.nintha.veladder.controller", new RouteCompiler(DispatchMode.METHOD_HANDLE, true, null, limits));
+        vertx.deployVerticle(new AppLauncher(port, routes))
+                .compose(id -> {
+                    // CompositeFuture.all只接受List<Future>
+                    @SuppressWarnings("rawtypes")
+                    List<Future> requests = new ArrayList<>();
+                    for (int i = 0; i < 3; i++) {
+                        requests.add(client.get(port, "127.0.0.1", "/rx/users/default").send());
+                    }
+                    return CompositeFuture.all(requests);
+                })
+                .compose(all -> {
+                    int rejected = 0;
+                    for (int i = 0; i < all.size(); i++) {
+                        HttpResponse<?> response = all.resultAt(i);
+                        if (response.statusCode() == 503) {
+                            rejected++;
+                            Assertions.assertEquals("2", response.getHeader("Retry-After"));
+                        }
+                    }
+                    Assertions.assertEquals(2, rejected);
+                    return client.get(port, "127.0.0.1", "/metrics").send();
+                })
+                .onComplete(ctx.succeeding(response -> ctx.verify(() -> {
+                    String body = response.bodyAsString();
+                    Assertions.assertTrue(body.contains("veladder_shed_total{route=\"/rx/users/default\",method=\"GET\"} 2"), body);
+                    Assertions.assertTrue(body.contains("veladder_concurrency_limit{route=\"/rx/users/default\",method=\"GET\"} 1"), body);
+                    ctx.completeNow();
+                })));
+    }
+
+    private Future<String> contentEncoding(HttpClient client, String uri) {
+        return client.request(HttpMethod.GET, port, "127.0.0.1", uri)
+                .compose(req -> req.putHeader("Accept-Encoding", "gzip, deflate").send())
+                .compose(resp -> resp.body().map(body -> resp.getHeader("Content-Encoding")));
+    }
+}
@@ -0,0 +1,72 @@
+package top.nintha.veladder.cache;
+
+import io.vertx.core.buffer.Buffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import top.nintha.veladder.annotations.Cacheable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ResponseCacheTest {
+
+    @Cacheable(maxEntries = 2)
+    private void cached() {
+    }
+
+    private ResponseCache newCache() throws NoSuchMethodException {
+        Cacheable options = ResponseCacheTest.class.getDeclaredMethod("cached").getAnnotation(Cacheable.class);
+        // 第二个参数不参与计算key
+        return new ResponseCache("/test", "GET", new boolean[]{true, false}, options);
+    }
+
+    @Test
+    void hitAndMiss() throws Exception {
+        ResponseCache cache = newCache();
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            Buffer body = cache.get(cache.key(new Object[]{new long[]{1, 2}, i}), () -> {
+                loads.incrementAndGet();
+                return CompletableFuture.completedFuture(Buffer.buffer("body"));
+            }).get();
+            Assertions.assertEquals("body", body.toString());
+        }
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(2, cache.getHits());
+        Assertions.assertEquals(1, cache.getMisses());
+        Assertions.assertEquals(1, cache.getEntries());
+    }
+
+    @Test
+    void coalesceConcurrentMisses() throws Exception {
+        ResponseCache cache = newCache();
+        CompletableFuture<Buffer> pending = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+        ResponseCache.Key key = cache.key(new Object[]{"a", null});
+        CompletableFuture<Buffer> first = cache.get(key, () -> {
+            loads.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<Buffer> second = cache.get(key, () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(Buffer.buffer("other"));
+        });
+        Assertions.assertFalse(second.isDone());
+        pending.complete(Buffer.buffer("shared"));
+        Assertions.assertEquals("shared", first.get().toString());
+        Assertions.assertEquals("shared", second.get().toString());
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1, cache.getCoalesced());
+        Assertions.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void failureIsNotCached() throws Exception {
+        ResponseCache cache = newCache();
+        ResponseCache.Key key = cache.key(new Object[]{"a", null});
+        CompletableFuture<Buffer> failed = cache.get(key, () -> CompletableFuture.failedFuture(new IllegalStateException()));
+        Assertions.assertTrue(failed.isCompletedExceptionally());
+        Buffer body = cache.get(key, () -> CompletableFuture.completedFuture(Buffer.buffer("ok"))).get();
+        Assertions.assertEquals("ok", body.toString());
+    }
+}
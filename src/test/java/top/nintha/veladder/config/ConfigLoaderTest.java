@@ -0,0 +1,44 @@
+package top.nintha.veladder.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+
+class ConfigLoaderTest {
+
+    @Test
+    void envToKey() {
+        Assertions.assertEquals("veladder.server.port", ConfigLoader.envToKey("VELADDER_SERVER_PORT"));
+        Assertions.assertEquals("veladder.blocking-detector.budget-ms", ConfigLoader.envToKey("VELADDER_BLOCKING__DETECTOR_BUDGET__MS"));
+    }
+
+    @Test
+    void precedence(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("app.properties");
+        Files.writeString(file, "veladder.server.port=9000\nveladder.server.host=127.0.0.1\nveladder.server.idle-timeout=30\n");
+        Properties system = new Properties();
+        system.setProperty(ConfigLoader.FILE_PROPERTY, file.toString());
+        system.setProperty("veladder.server.port", "9002");
+        system.setProperty("java.version", "ignored");
+        Map<String, String> env = Map.of("VELADDER_SERVER_PORT", "9001", "VELADDER_SERVER_IDLE__TIMEOUT", "60", "PATH", "/bin");
+
+        Properties merged = ConfigLoader.load(env, system);
+        Assertions.assertEquals("9002", merged.getProperty("veladder.server.port"));
+        Assertions.assertEquals("60", merged.getProperty("veladder.server.idle-timeout"));
+        Assertions.assertEquals("127.0.0.1", merged.getProperty("veladder.server.host"));
+        Assertions.assertNull(merged.getProperty("java.version"));
+        Assertions.assertNull(merged.getProperty("path"));
+    }
+
+    @Test
+    void missingExplicitFile() {
+        Properties system = new Properties();
+        system.setProperty(ConfigLoader.FILE_PROPERTY, "not-exists.properties");
+        Assertions.assertThrows(IllegalStateException.class, () -> ConfigLoader.load(Map.of(), system));
+    }
+}
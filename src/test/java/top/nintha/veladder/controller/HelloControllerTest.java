@@ -68,6 +68,29 @@ class HelloControllerTest {
                 })));
     }
 
+    @Test
+    void echoTextNotModified(Vertx vertx, VertxTestContext ctx) {
+        String text = UUID.randomUUID().toString();
+        WebClient client = WebClient.create(vertx);
+        client.get(port, "127.0.0.1", "/echo/text")
+                .addQueryParam("text", text)
+                .send()
+                .compose(first -> {
+                    Assertions.assertEquals("no-cache", first.getHeader("Cache-Control"));
+                    String etag = first.getHeader("ETag");
+                    Assertions.assertNotNull(etag);
+                    return client.get(port, "127.0.0.1", "/echo/text")
+                            .addQueryParam("text", text)
+                            .putHeader("If-None-Match", "\"other\", W/" + etag)
+                            .send();
+                })
+                .onComplete(ctx.succeeding(second -> ctx.verify(() -> {
+                    Assertions.assertEquals(304, second.statusCode());
+                    Assertions.assertNull(second.body());
+                    ctx.completeNow();
+                })));
+    }
+
     @Test
     void echoObjectWithQuery(Vertx vertx, VertxTestContext ctx) {
         String text = UUID.randomUUID().toString();
@@ -0,0 +1,206 @@
+package top.nintha.veladder.controller;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.multipart.MultipartForm;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import top.nintha.veladder.AppLauncher;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@ExtendWith(VertxExtension.class)
+class HelloRxControllerTest {
+    private final int port = ThreadLocalRandom.current().nextInt(12000, 22000);
+
+    @BeforeEach
+    @DisplayName("Deploy a verticle")
+    void prepare(Vertx vertx, VertxTestContext testContext) {
+        vertx.exceptionHandler(t -> log.error("[VERTX]", t));
+        vertx.deployVerticle(new AppLauncher(port), testContext.succeedingThenComplete());
+    }
+
+    @Test
+    void helloWorld(Vertx vertx, VertxTestContext ctx) {
+        WebClient.create(vertx)
+                .get(port, "127.0.0.1", "/rx/hello/world")
+                .send()
+                .onComplete(ctx.succeeding(buffer -> ctx.verify(() -> {
+                    Assertions.assertEquals("hello world", buffer.bodyAsString().toLowerCase());
+                    ctx.completeNow();
+                })));
+    }
+
+    @Test
+    void blockingOnWorkerPool(Vertx vertx, VertxTestContext ctx) {
+        WebClient.create(vertx)
+                .get(port, "127.0.0.1", "/blocking/thread")
+                .send()
+                .onComplete(ctx.succeeding(buffer -> ctx.verify(() -> {
+                    Assertions.assertTrue(buffer.bodyAsString().startsWith("veladder-blocking"), buffer.bodyAsString());
+                    ctx.completeNow();
+                })));
+    }
+
+    @Test
+    void singleTimeout(Vertx vertx, VertxTestContext ctx) {
+        long start = System.nanoTime();
+        WebClient.create(vertx)
+                .get(port, "127.0.0.1", "/rx/users/timeout")
+                .send()
+                .onComplete(ctx.succeeding(response -> ctx.verify(() -> {
+                    Assertions.assertEquals(504, response.statusCode());
+                    Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(3));
+                    ctx.completeNow();
+                })));
+    }
+
+    @Test
+    void completionStageAndVertxFuture(Vertx vertx, VertxTestContext ctx) {
+        WebClient client = WebClient.create(vertx);
+        client.get(port, "127.0.0.1", "/async/users?id=3")
+                .send()
+                .compose(response -> {
+                    Assertions.assertEquals("user3", response.bodyAsJsonObject().getString("name"));
+                    return client.get(port, "127.0.0.1", "/future/users?id=4").send();
+                })
+                .onComplete(ctx.succeeding(response -> ctx.verify(() -> {
+                    Assertions.assertEquals(200, response.statusCode());
+                    Assertions.assertEquals("user4", response.bodyAsJsonObject().getString("name"));
+                    ctx.completeNow();
+                })));
+    }
+
+    @Test
+    void completionStageTimeout(Vertx vertx, VertxTestContext ctx) {
+        long start = System.nanoTime();
+        WebClient.create(vertx)
+                .get(port, "127.0.0.1", "/async/users/timeout")
+                .send()
+                .onComplete(ctx.succeeding(response -> ctx.verify(() -> {
+                    Assertions.assertEquals(504, response.statusCode());
+                    Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(3));
+                    ctx.completeNow();
+                })));
+    }
+
+    @Test
+    void maybeAndCompletable(Vertx vertx, VertxTestContext ctx) {
+        WebClient client = WebClient.create(vertx);
+        client.get(port, "127.0.0.1", "/rx/users/maybe?id=5")
+                .send()
+                .compose(response -> {
+                    Assertions.assertEquals("user5", response.bodyAsJsonObject().getString("name"));
+                    return client.get(port, "127.0.0.1", "/rx/users/maybe").send();
+                })
+                .compose(response -> {
+                    Assertions.assertEquals(200, response.statusCode());
+                    Assertions.assertNull(response.body());
+                    return client.post(port, "127.0.0.1", "/rx/users/touch?id=5").send();
+                })
+                .onComplete(ctx.succeeding(response -> ctx.verify(() -> {
+                    Assertions.assertEquals(200, response.statusCode());
+                    Assertions.assertNull(response.body());
+                    ctx.completeNow();
+                })));
+    }
+
+    @Test
+    void streamingMultipartUpload(Vertx vertx, VertxTestContext ctx) {
+        MultipartForm form = MultipartForm.create()
+                .attribute("note", "ignored")
+                .binaryFileUpload("a", "a.bin", Buffer.buffer(new byte[300 * 1024]), "application/octet-stream")
+                .textFileUpload("b", "b.txt", Buffer.buffer("hello"), "text/plain");
+        WebClient.create(vertx)
+                .post(port, "127.0.0.1", "/rx/file/upload/stream")
+                .sendMultipartForm(form)
+                .onComplete(ctx.succeeding(response -> ctx.verify(() -> {
+                    Assertions.assertEquals(200, response.statusCode());
+                    JsonObject sizes = response.bodyAsJsonObject();
+                    Assertions.assertEquals(300 * 1024, sizes.getLong("a.bin"));
+                    Assertions.assertEquals(5, sizes.getLong("b.txt"));
+                    ctx.completeNow();
+                })));
+    }
+
+    @Test
+    void streamingBodySize(Vertx vertx, VertxTestContext ctx) {
+        int size = 4 * 1024 * 1024 + 7;
+        Buffer body = Buffer.buffer(new byte[size]);
+        WebClient.create(vertx)
+                .post(port, "127.0.0.1", "/rx/body/size")
+                .sendBuffer(body)
+                .onComplete(ctx.succeeding(buffer -> ctx.verify(() -> {
+                    Assertions.assertEquals(String.valueOf(size), buffer.bodyAsString());
+                    ctx.completeNow();
+                })));
+    }
+
+    @Test
+    void streamUsersAsJsonArray(Vertx vertx, VertxTestContext ctx) {
+        int count = 10000;
+        WebClient.create(vertx)
+                .get(port, "127.0.0.1", "/rx/users/stream")
+                .addQueryParam("count", String.valueOf(count))
+                .send()
+                .onComplete(ctx.succeeding(buffer -> ctx.verify(() -> {
+                    JsonArray users = buffer.bodyAsJsonArray();
+                    Assertions.assertEquals(count, users.size());
+                    Assertions.assertEquals("user9999", users.getJsonObject(count - 1).getString("name"));
+                    ctx.completeNow();
+                })));
+    }
+
+    @Test
+    void streamEmptyJsonArray(Vertx vertx, VertxTestContext ctx) {
+        WebClient.create(vertx)
+                .get(port, "127.0.0.1", "/rx/users/stream")
+                .addQueryParam("count", "0")
+                .send()
+                .onComplete(ctx.succeeding(buffer -> ctx.verify(() -> {
+                    Assertions.assertEquals(new JsonArray(), buffer.bodyAsJsonArray());
+                    ctx.completeNow();
+                })));
+    }
+
+    @Test
+    void streamUsersAsNdjson(Vertx vertx, VertxTestContext ctx) {
+        WebClient.create(vertx)
+                .get(port, "127.0.0.1", "/rx/users/ndjson")
+                .addQueryParam("count", "3")
+                .send()
+                .onComplete(ctx.succeeding(buffer -> ctx.verify(() -> {
+                    Assertions.assertEquals("application/x-ndjson;charset=UTF-8", buffer.getHeader("Content-Type"));
+                    String[] lines = buffer.bodyAsString().split("\n");
+                    Assertions.assertEquals(3, lines.length);
+                    Assertions.assertEquals(2, new JsonObject(lines[2]).getLong("id"));
+                    ctx.completeNow();
+                })));
+    }
+
+    @Test
+    void streamErrorBeforeFirstElement(Vertx vertx, VertxTestContext ctx) {
+        WebClient.create(vertx)
+                .get(port, "127.0.0.1", "/rx/users/ndjson")
+                .addQueryParam("count", "-1")
+                .send()
+                .onComplete(ctx.succeeding(buffer -> ctx.verify(() -> {
+                    Assertions.assertEquals(500, buffer.statusCode());
+                    Assertions.assertEquals("application/json;charset=UTF-8", buffer.getHeader("Content-Type"));
+                    Assertions.assertNull(buffer.getHeader("Transfer-Encoding"));
+                    Assertions.assertEquals("system error", buffer.bodyAsJsonObject().getString("message"));
+                    ctx.completeNow();
+                })));
+    }
+}
@@ -0,0 +1,43 @@
+package top.nintha.veladder.converter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.UUID;
+
+class ValueConvertersTest {
+
+    @Test
+    void primitiveArray() throws Exception {
+        Object longs = ValueConverters.findArray(long.class).convert(List.of("1", "2", "3"));
+        Assertions.assertArrayEquals(new long[]{1, 2, 3}, (long[]) longs);
+
+        Object ints = ValueConverters.findArray(int.class).convert(List.of("7"));
+        Assertions.assertArrayEquals(new int[]{7}, (int[]) ints);
+    }
+
+    @Test
+    void objectArray() throws Exception {
+        UUID id = UUID.randomUUID();
+        Object uuids = ValueConverters.findArray(UUID.class).convert(List.of(id.toString(), " "));
+        Assertions.assertArrayEquals(new UUID[]{id, null}, (UUID[]) uuids);
+    }
+
+    @Test
+    void enumAndCustomType() throws Exception {
+        Assertions.assertTrue(ValueConverters.supports(DayOfWeek.class));
+        Assertions.assertEquals(DayOfWeek.MONDAY, ValueConverters.find(DayOfWeek.class).convert("MONDAY"));
+
+        Assertions.assertFalse(ValueConverters.supports(StringBuilder.class));
+        ValueConverters.register(StringBuilder.class, StringBuilder::new);
+        Assertions.assertEquals("abc", ValueConverters.find(StringBuilder.class).convert("abc").toString());
+    }
+
+    @Test
+    void blankToNull() throws Exception {
+        Assertions.assertNull(ValueConverters.convert("", ValueConverters.find(int.class)));
+        Assertions.assertEquals(12, ValueConverters.convert("12", ValueConverters.find(int.class)));
+    }
+}
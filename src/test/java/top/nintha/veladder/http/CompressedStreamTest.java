@@ -0,0 +1,50 @@
+package top.nintha.veladder.http;
+
+import io.vertx.core.buffer.Buffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+class CompressedStreamTest {
+
+    @Test
+    void gzipChunks() throws Exception {
+        CompressedStream stream = new CompressedStream(CompressedStream.GZIP, 6);
+        Buffer out = Buffer.buffer();
+        out.appendBuffer(stream.write(Buffer.buffer("[1,")));
+        // 同步刷新后已写出的内容可以独立解压
+        Assertions.assertEquals("[1,", new String(new GZIPInputStream(new ByteArrayInputStream(out.getBytes())).readNBytes(3), StandardCharsets.UTF_8));
+        out.appendBuffer(stream.finish(Buffer.buffer("2]")));
+        Assertions.assertEquals("[1,2]", inflate(new GZIPInputStream(new ByteArrayInputStream(out.getBytes()))));
+    }
+
+    @Test
+    void deflateBody() throws Exception {
+        CompressedStream stream = new CompressedStream(CompressedStream.DEFLATE, 1);
+        String body = "a".repeat(4096);
+        Buffer out = stream.finish(Buffer.buffer(body));
+        Assertions.assertTrue(out.length() < body.length());
+        Assertions.assertEquals(body, inflate(new InflaterInputStream(new ByteArrayInputStream(out.getBytes()))));
+        // 结束后重复释放不报错
+        stream.close();
+    }
+
+    @Test
+    void negotiate() {
+        Assertions.assertEquals("gzip", CompressionHandler.negotiate("deflate, gzip;q=0.5"));
+        Assertions.assertEquals("deflate", CompressionHandler.negotiate("gzip;q=0, deflate"));
+        Assertions.assertNull(CompressionHandler.negotiate("br"));
+        Assertions.assertNull(CompressionHandler.negotiate(null));
+    }
+
+    private static String inflate(InputStream in) throws Exception {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package top.nintha.veladder.http;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.handler.BodyHandler;
+import io.vertx.ext.web.multipart.MultipartForm;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+@ExtendWith(VertxExtension.class)
+class FileUploadsTest {
+    private final int port = ThreadLocalRandom.current().nextInt(12000, 22000);
+
+    @Test
+    void fileName() {
+        Assertions.assertEquals("a.txt", FileUploads.fileName("a.txt"));
+        Assertions.assertEquals("a.txt", FileUploads.fileName("../../a.txt"));
+        Assertions.assertEquals("a.txt", FileUploads.fileName("C:\\tmp\\a.txt"));
+        Assertions.assertNull(FileUploads.fileName(".."));
+        Assertions.assertNull(FileUploads.fileName("dir/"));
+        Assertions.assertNull(FileUploads.fileName(null));
+    }
+
+    @Test
+    void moveUploadedFile(Vertx vertx, VertxTestContext ctx, @TempDir Path dir) throws Exception {
+        Path uploads = Files.createDirectory(dir.resolve("uploads"));
+        Path target = Files.createDirectory(dir.resolve("target"));
+        Router router = Router.router(vertx);
+        router.post("/upload")
+                .handler(BodyHandler.create(uploads.toString()))
+                .handler(rc -> FileUploads.moveTo(vertx, rc.fileUploads().iterator().next(), target)
+                        .onSuccess(rc::end)
+                        .onFailure(rc::fail));
+        MultipartForm form = MultipartForm.create()
+                .textFileUpload("file", "../pic.txt", Buffer.buffer("content"), "text/plain");
+        vertx.createHttpServer().requestHandler(router).listen(port)
+                .compose(server -> WebClient.create(vertx).post(port, "127.0.0.1", "/upload").sendMultipartForm(form))
+                .onComplete(ctx.succeeding(response -> ctx.verify(() -> {
+                    Assertions.assertEquals(target.resolve("pic.txt").toString(), response.bodyAsString());
+                    Assertions.assertEquals("content", Files.readString(target.resolve("pic.txt")));
+                    try (var remaining = Files.list(uploads)) {
+                        Assertions.assertEquals(0, remaining.count());
+                    }
+                    ctx.completeNow();
+                })));
+    }
+}
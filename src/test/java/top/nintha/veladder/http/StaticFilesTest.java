@@ -0,0 +1,54 @@
+package top.nintha.veladder.http;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPOutputStream;
+
+@ExtendWith(VertxExtension.class)
+class StaticFilesTest {
+    private final int port = ThreadLocalRandom.current().nextInt(12000, 22000);
+
+    @Test
+    void acceptsGzip() {
+        Assertions.assertTrue(StaticFiles.acceptsGzip("gzip, deflate, br"));
+        Assertions.assertTrue(StaticFiles.acceptsGzip("deflate;q=1.0, GZIP;q=0.5"));
+        Assertions.assertFalse(StaticFiles.acceptsGzip("gzip;q=0"));
+        Assertions.assertFalse(StaticFiles.acceptsGzip("deflate"));
+        Assertions.assertFalse(StaticFiles.acceptsGzip(null));
+    }
+
+    @Test
+    void sendPrecompressedSibling(Vertx vertx, VertxTestContext ctx, @TempDir Path dir) throws Exception {
+        Path file = dir.resolve("data.json");
+        Files.writeString(file, "{\"plain\":true}");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(dir.resolve("data.json.gz")))) {
+            out.write("{\"gzip\":true}".getBytes(StandardCharsets.UTF_8));
+        }
+        Router router = Router.router(vertx);
+        router.get("/file").handler(rc -> StaticFiles.sendFile(rc, file.toString()));
+        HttpClient client = vertx.createHttpClient();
+        vertx.createHttpServer().requestHandler(router).listen(port)
+                .compose(server -> client.request(HttpMethod.GET, port, "127.0.0.1", "/file"))
+                .compose(req -> req.putHeader("Accept-Encoding", "gzip").send())
+                .onComplete(ctx.succeeding(resp -> ctx.verify(() -> {
+                    Assertions.assertEquals("gzip", resp.getHeader("Content-Encoding"));
+                    Assertions.assertEquals("application/json", resp.getHeader("Content-Type"));
+                    Assertions.assertEquals(String.valueOf(Files.size(dir.resolve("data.json.gz"))), resp.getHeader("Content-Length"));
+                    ctx.completeNow();
+                })));
+    }
+}
@@ -0,0 +1,57 @@
+package top.nintha.veladder.limit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+class ConcurrencyLimiterTest {
+
+    @Test
+    void fixedLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 2, 0.5, TimeUnit.MILLISECONDS.toNanos(10));
+        Assertions.assertTrue(limiter.tryAcquire());
+        Assertions.assertTrue(limiter.tryAcquire());
+        Assertions.assertFalse(limiter.tryAcquire());
+        Assertions.assertEquals(1, limiter.getShed());
+        // 固定上限不随耗时变化
+        limiter.release(TimeUnit.SECONDS.toNanos(1), true);
+        Assertions.assertEquals(2, limiter.getLimit());
+        Assertions.assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void aimd() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 2, 0.5, TimeUnit.MILLISECONDS.toNanos(10));
+        Assertions.assertTrue(limiter.tryAcquire());
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(50), false);
+        Assertions.assertEquals(5, limiter.getLimit());
+        limiter.tryAcquire();
+        limiter.release(0, true);
+        limiter.tryAcquire();
+        limiter.release(0, true);
+        Assertions.assertEquals(2, limiter.getLimit());
+
+        // 并发达到上限一半以上且响应正常时逐个增加
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1), false);
+        Assertions.assertEquals(3, limiter.getLimit());
+        // 并发较低时不增加
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1), false);
+        Assertions.assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void globalReleasedWhenRouteRejects() {
+        LimitOptions options = new LimitOptions().setGlobalMaxConcurrency(10).setRouteLimits(Map.of("/a", 1));
+        ConcurrencyLimiter global = options.newGlobalLimiter();
+        Admission admission = options.newAdmission("/a", "*", 0, global);
+        Assertions.assertTrue(admission.tryAcquire());
+        Assertions.assertFalse(admission.tryAcquire());
+        Assertions.assertEquals(1, global.getInFlight());
+        Assertions.assertEquals(1, admission.getRouteLimiter().getShed());
+        Assertions.assertNull(options.newAdmission("/b", "*", 0, null));
+    }
+}
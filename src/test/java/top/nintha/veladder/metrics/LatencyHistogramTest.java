@@ -0,0 +1,45 @@
+package top.nintha.veladder.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketBoundaries() {
+        for (long v : new long[]{0, 1, 7, 8, 15, 16, 1000, 123_456_789, 1L << 40}) {
+            int index = LatencyHistogram.index(v);
+            long highest = LatencyHistogram.highestValue(index);
+            Assertions.assertTrue(highest >= v, "value=" + v);
+            // 相对误差不超过1/8
+            Assertions.assertTrue(highest - v <= v / 8, "value=" + v);
+        }
+        Assertions.assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.index(Long.MAX_VALUE));
+    }
+
+    @Test
+    void quantiles() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 1; i <= 1000; i++) {
+                    histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assertions.assertEquals(4000, snapshot.getCount());
+        Assertions.assertEquals(4 * TimeUnit.MICROSECONDS.toNanos(500_500), snapshot.getSum());
+        long p50 = snapshot.valueAtQuantile(0.5);
+        long p99 = snapshot.valueAtQuantile(0.99);
+        Assertions.assertTrue(p50 >= 500_000 && p50 <= 500_000 * 9 / 8, "p50=" + p50);
+        Assertions.assertTrue(p99 >= 990_000 && p99 <= 990_000 * 9 / 8, "p99=" + p99);
+    }
+}
@@ -0,0 +1,75 @@
+package top.nintha.veladder.route;
+
+import io.vertx.core.MultiMap;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import top.nintha.veladder.entity.MockUser;
+
+import java.util.List;
+
+class BeanBinderTest {
+
+    @Data
+    static class BaseQuery {
+        private int page = 1;
+        private static String ignoredStatic;
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    static class UserQuery extends BaseQuery {
+        private String keyword;
+        private long[] ids;
+        private transient String ignoredTransient;
+        private MockUser owner;
+    }
+
+    @Test
+    void bindPresentParams() throws Throwable {
+        MultiMap params = MultiMap.caseInsensitiveMultiMap()
+                .add("keyword", "abc")
+                .add("ids", "1")
+                .add("ids", "2")
+                .add("ignoredTransient", "x")
+                .add("unknown", "y");
+
+        UserQuery query = (UserQuery) BeanBinder.of(UserQuery.class).bind(params);
+        Assertions.assertEquals("abc", query.getKeyword());
+        Assertions.assertArrayEquals(new long[]{1, 2}, query.getIds());
+        Assertions.assertNull(query.getIgnoredTransient());
+        Assertions.assertNull(query.getOwner());
+        // 未出现的参数保持默认值
+        Assertions.assertEquals(1, query.getPage());
+    }
+
+    @Test
+    void bindSuperclassAndNested() throws Throwable {
+        MultiMap params = MultiMap.caseInsensitiveMultiMap()
+                .add("page", "3")
+                .add("owner.id", "42")
+                .add("owner.name", "nintha")
+                .add("owner.tags", "a")
+                .add("owner.tags", "b");
+
+        UserQuery query = (UserQuery) BeanBinder.of(UserQuery.class).bind(params);
+        Assertions.assertEquals(3, query.getPage());
+        Assertions.assertEquals(42L, query.getOwner().getId());
+        Assertions.assertEquals("nintha", query.getOwner().getName());
+        Assertions.assertEquals(List.of("a", "b"), query.getOwner().getTags());
+    }
+
+    @Test
+    void bindMixedCaseKeys() throws Throwable {
+        MultiMap params = MultiMap.caseInsensitiveMultiMap()
+                .add("KeyWord", "abc")
+                .add("PAGE", "2")
+                .add("Owner.Name", "nintha");
+
+        UserQuery query = (UserQuery) BeanBinder.of(UserQuery.class).bind(params);
+        Assertions.assertEquals("abc", query.getKeyword());
+        Assertions.assertEquals(2, query.getPage());
+        Assertions.assertEquals("nintha", query.getOwner().getName());
+    }
+}
@@ -0,0 +1,17 @@
+package top.nintha.veladder.route;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PrimitiveBinderTest {
+
+    @Test
+    void primitiveParamsUseTypedBinder() throws Exception {
+        ParamBinder binder = ParamBinders.forType(long.class, "id", long.class);
+        Assertions.assertTrue(binder instanceof PrimitiveBinder);
+        Assertions.assertEquals("bindLong", ((PrimitiveBinder) binder).accessor());
+        Assertions.assertEquals("bindBoolean", new PrimitiveBinder("flag", boolean.class).accessor());
+        // 包装类型允许为null，仍使用通用绑定器
+        Assertions.assertFalse(ParamBinders.forType(Long.class, "id", Long.class) instanceof PrimitiveBinder);
+    }
+}
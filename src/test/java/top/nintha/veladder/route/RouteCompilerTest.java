@@ -0,0 +1,23 @@
+package top.nintha.veladder.route;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+class RouteCompilerTest {
+
+    @Test
+    void bodyModeFromSignature() throws Exception {
+        Map<String, BodyMode> modes = RouteTable.scan("top.nintha.veladder.controller", new RouteCompiler()).getRoutes().stream()
+                .collect(Collectors.toMap(CompiledRoute::getPath, CompiledRoute::getBodyMode));
+        // 未声明method的路由不读取请求体
+        Assertions.assertEquals(BodyMode.NONE, modes.get("/echo/text"));
+        Assertions.assertEquals(BodyMode.NONE, modes.get("/hello/path/variable/:token/:id"));
+        Assertions.assertEquals(BodyMode.BUFFERED, modes.get("/echo/object"));
+        Assertions.assertEquals(BodyMode.BUFFERED, modes.get("/post/body"));
+        Assertions.assertEquals(BodyMode.UPLOAD, modes.get("/rx/file/upload"));
+        Assertions.assertEquals(BodyMode.STREAM, modes.get("/rx/body/size"));
+    }
+}
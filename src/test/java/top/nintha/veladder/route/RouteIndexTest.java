@@ -0,0 +1,26 @@
+package top.nintha.veladder.route;
+
+import io.vertx.ext.web.RoutingContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import top.nintha.veladder.controller.HelloController;
+import top.nintha.veladder.controller.HelloRxController;
+
+import java.util.List;
+
+class RouteIndexTest {
+
+    @Test
+    void loadGeneratedIndex() throws Exception {
+        RouteIndex index = RouteIndex.load(getClass().getClassLoader());
+        Assertions.assertNotNull(index, "index should be generated by veladder-processor");
+
+        List<String> controllers = index.controllersIn("top.nintha.veladder.controller");
+        Assertions.assertTrue(controllers.contains(HelloController.class.getName()));
+        Assertions.assertTrue(controllers.contains(HelloRxController.class.getName()));
+
+        String[] names = index.paramNames(HelloController.class.getMethod("helloArray", long[].class, String[].class, RoutingContext.class));
+        Assertions.assertArrayEquals(new String[]{"ids", "names", "ctx"}, names);
+        Assertions.assertArrayEquals(new String[0], index.paramNames(HelloController.class.getMethod("helloWorld")));
+    }
+}
@@ -0,0 +1,67 @@
+package top.nintha.veladder.route;
+
+import io.vertx.core.http.HttpMethod;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class RouteTrieTest {
+
+    @Test
+    void staticBeforeParamWithBacktracking() {
+        RouteTrie<String> trie = new RouteTrie<>();
+        trie.add("/users/me", List.of(), "me");
+        trie.add("/users/:id", List.of(), "user");
+        trie.add("/users/me/orders/:orderId", List.of(), "myOrder");
+        trie.add("/users/:id/profile", List.of(), "profile");
+
+        Assertions.assertEquals("me", trie.find(HttpMethod.GET, "/users/me").getValue());
+        Assertions.assertEquals("user", trie.find(HttpMethod.GET, "/users/42").getValue());
+        Assertions.assertEquals("myOrder", trie.find(HttpMethod.GET, "/users/me/orders/7").getValue());
+
+        // 静态段me之后没有profile，回溯到参数段
+        RouteTrie.Match<String> match = trie.find(HttpMethod.GET, "/users/me/profile");
+        Assertions.assertEquals("profile", match.getValue());
+        Assertions.assertEquals(1, match.getParamCount());
+        Assertions.assertEquals("id", match.getParamName(0));
+        Assertions.assertEquals("me", match.getParamValue(0));
+
+        Assertions.assertEquals("a b+c/d", trie.find(HttpMethod.GET, "/users/a%20b+c%2Fd").getDecodedParamValue(0));
+
+        Assertions.assertNull(trie.find(HttpMethod.GET, "/users"));
+        Assertions.assertNull(trie.find(HttpMethod.GET, "/users/42/unknown"));
+    }
+
+    @Test
+    void methodsAndTrailingSlash() {
+        RouteTrie<String> trie = new RouteTrie<>();
+        trie.add("/post/body", List.of(HttpMethod.POST), "post");
+        trie.add("/post/body", List.of(HttpMethod.PUT, HttpMethod.PATCH), "put");
+
+        Assertions.assertEquals("post", trie.find(HttpMethod.POST, "/post/body/").getValue());
+        Assertions.assertEquals("put", trie.find(HttpMethod.PATCH, "/post/body").getValue());
+        // 路径匹配但HttpMethod不匹配
+        Assertions.assertNull(trie.find(HttpMethod.GET, "/post/body").getValue());
+        // 重复注册保留先注册的值
+        Assertions.assertFalse(trie.add("/post/body", List.of(HttpMethod.POST), "other"));
+    }
+
+    @Test
+    void multipleParamsAndWildcard() {
+        RouteTrie<String> trie = new RouteTrie<>();
+        trie.add("/hello/path/variable/:token/:id", List.of(), "variable");
+        trie.add("/static/*", List.of(HttpMethod.GET), "static");
+
+        RouteTrie.Match<String> match = trie.find(HttpMethod.GET, "/hello/path/variable/abc/1234");
+        Assertions.assertEquals("variable", match.getValue());
+        Assertions.assertEquals("token", match.getParamName(0));
+        Assertions.assertEquals("abc", match.getParamValue(0));
+        Assertions.assertEquals("id", match.getParamName(1));
+        Assertions.assertEquals("1234", match.getParamValue(1));
+
+        Assertions.assertEquals("static", trie.find(HttpMethod.GET, "/static").getValue());
+        Assertions.assertEquals("static", trie.find(HttpMethod.GET, "/static/js/app.js").getValue());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> trie.add("/a/*/b", List.of(), "x"));
+    }
+}
@@ -6,7 +6,9 @@ import top.nintha.veladder.annotations.RestController;
 import top.nintha.veladder.controller.HelloController;
 import top.nintha.veladder.controller.HelloRxController;
 
+import java.util.List;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 class ClassScanUtilTest {
 
@@ -18,4 +20,12 @@ class ClassScanUtilTest {
         Assertions.assertTrue(classSet.contains(HelloRxController.class));
         Assertions.assertTrue(classSet.contains(HelloController.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void scanWithFilters() {
+        Set<Class<?>> classSet = ClassScanUtil.scanByAnnotation(
+                List.of("top.nintha.veladder.controller", "top.nintha.veladder"), RestController.class,
+                List.of(Pattern.compile(".*\\.controller\\..*")), List.of(Pattern.compile(".*Rx.*")));
+        Assertions.assertEquals(Set.of(HelloController.class), classSet);
+    }
+}
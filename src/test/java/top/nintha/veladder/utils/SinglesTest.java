@@ -0,0 +1,53 @@
+package top.nintha.veladder.utils;
+
+import io.reactivex.disposables.Disposable;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(VertxExtension.class)
+class SinglesTest {
+
+    @Test
+    void disposeCancelsCompletableFuture() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        Disposable disposable = Singles.fromCompletableFuture(future).subscribe(x -> {
+        }, e -> {
+        });
+        disposable.dispose();
+        Assertions.assertTrue(future.isCancelled());
+    }
+
+    @Test
+    void disposeInterruptsWorker(Vertx vertx, VertxTestContext ctx) {
+        CountDownLatch started = new CountDownLatch(1);
+        vertx.runOnContext(v -> {
+            Disposable disposable = Singles.supplyAsync(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                    return "finished";
+                } catch (InterruptedException e) {
+                    ctx.completeNow();
+                    return "interrupted";
+                }
+            }).subscribe(x -> {
+            }, ctx::failNow);
+            vertx.executeBlocking(promise -> {
+                try {
+                    started.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                promise.complete();
+            }, false, ar -> disposable.dispose());
+        });
+    }
+}
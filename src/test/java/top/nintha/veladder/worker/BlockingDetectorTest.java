@@ -0,0 +1,73 @@
+package top.nintha.veladder.worker;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+class BlockingDetectorTest {
+
+    @Test
+    void rankOffendersAndPromote() throws InterruptedException {
+        BlockingDetector detector = new BlockingDetector(new BlockingDetectorOptions()
+                .setEnabled(true).setBudgetMillis(20).setPromoteAfter(2));
+        detector.start();
+        try {
+            rankOffendersAndPromote(detector);
+        } finally {
+            detector.close();
+        }
+        Assertions.assertFalse(detector.isRunning());
+    }
+
+    private void rankOffendersAndPromote(BlockingDetector detector) throws InterruptedException {
+        BlockingDetector.Probe slow = detector.probe("SlowController::sleep", true);
+        BlockingDetector.Probe fast = detector.probe("FastController::hello", true);
+
+        for (int i = 0; i < 2; i++) {
+            slow.enter();
+            try {
+                Thread.sleep(100);
+            } finally {
+                slow.exit();
+            }
+            fast.enter();
+            fast.exit();
+        }
+
+        Assertions.assertEquals(2, slow.getViolations());
+        Assertions.assertTrue(slow.isPromoted());
+        Assertions.assertEquals(0, fast.getViolations());
+        Assertions.assertEquals(2, fast.getInvocations());
+        Assertions.assertFalse(fast.isPromoted());
+        Assertions.assertEquals(List.of(slow), detector.topOffenders());
+
+        // 后台线程在调用结束前采样到了阻塞位置
+        StackTraceElement[] stack = slow.getSampleStack();
+        Assertions.assertNotNull(stack);
+        Assertions.assertTrue(Arrays.stream(stack).anyMatch(e -> e.getMethodName().equals("rankOffendersAndPromote")));
+
+        Map<String, Object> report = detector.report().get(0);
+        Assertions.assertEquals("SlowController::sleep", report.get("route"));
+        Assertions.assertEquals(true, report.get("promoted"));
+    }
+
+    @Test
+    void watchdogStopsAfterLastClose() {
+        BlockingDetector detector = new BlockingDetector(new BlockingDetectorOptions().setEnabled(true));
+        Assertions.assertFalse(detector.isRunning());
+        detector.start();
+        detector.start();
+        detector.close();
+        Assertions.assertTrue(detector.isRunning());
+        detector.close();
+        Assertions.assertFalse(detector.isRunning());
+        // 多余的close不影响下一次启动
+        detector.close();
+        detector.start();
+        Assertions.assertTrue(detector.isRunning());
+        detector.close();
+    }
+}
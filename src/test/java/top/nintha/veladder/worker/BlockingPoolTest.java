@@ -0,0 +1,92 @@
+package top.nintha.veladder.worker;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(VertxExtension.class)
+class BlockingPoolTest {
+
+    @Test
+    void rejectWhenQueueFull(Vertx vertx, VertxTestContext ctx) {
+        BlockingPoolOptions options = new BlockingPoolOptions().setSize(1).setQueueCapacity(1);
+        BlockingPool pool = new BlockingPool("test-pool", vertx.createSharedWorkerExecutor("test-pool", 1), options);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        Future<String> running = pool.submit(() -> {
+            latch.await();
+            return Thread.currentThread().getName();
+        });
+        Future<String> queued = pool.submit(() -> "queued");
+        Future<String> rejected = pool.submit(() -> "rejected");
+
+        ctx.verify(() -> {
+            Assertions.assertTrue(rejected.failed());
+            Assertions.assertTrue(rejected.cause() instanceof RejectedExecutionException);
+            Assertions.assertEquals(1, pool.getRejected());
+        });
+        latch.countDown();
+
+        running.compose(name -> queued.map(q -> name)).onComplete(ctx.succeeding(name -> ctx.verify(() -> {
+            Assertions.assertTrue(name.startsWith("test-pool"));
+            Assertions.assertEquals(2, pool.getCompleted());
+            Assertions.assertEquals(0, pool.getQueued());
+            ctx.completeNow();
+        })));
+    }
+
+    @Test
+    void callerRunsNeverBlocksEventLoop(Vertx vertx, VertxTestContext ctx) throws Exception {
+        BlockingPoolOptions options = new BlockingPoolOptions().setSize(1).setQueueCapacity(0).setRejection(RejectionPolicy.CALLER_RUNS);
+        BlockingPool pool = new BlockingPool("test-caller-runs", vertx.createSharedWorkerExecutor("test-caller-runs", 1), options);
+        CountDownLatch latch = new CountDownLatch(1);
+        Future<String> running = pool.submit(() -> {
+            latch.await();
+            return "running";
+        });
+
+        // 非event loop线程提交时在调用线程上执行
+        String caller = Thread.currentThread().getName();
+        Assertions.assertEquals(caller, pool.submit(() -> Thread.currentThread().getName()).result());
+
+        vertx.runOnContext(v -> {
+            long start = System.nanoTime();
+            Future<Boolean> overflow = pool.submit(() -> {
+                Thread.sleep(500);
+                return io.vertx.core.Context.isOnEventLoopThread();
+            });
+            long elapsed = System.nanoTime() - start;
+            ctx.verify(() -> {
+                Assertions.assertTrue(elapsed < TimeUnit.MILLISECONDS.toNanos(100), "event loop blocked " + elapsed + " ns");
+                Assertions.assertTrue(overflow.failed());
+                Assertions.assertTrue(overflow.cause() instanceof RejectedExecutionException);
+                Assertions.assertEquals(2, pool.getRejected());
+            });
+            latch.countDown();
+            running.onComplete(ctx.succeeding(r -> ctx.completeNow()));
+        });
+    }
+
+    @Test
+    void virtualThreadsOrFallback(Vertx vertx, VertxTestContext ctx) {
+        System.setProperty("veladder.pool.test-virtual.virtual", "true");
+        BlockingPool pool = BlockingPools.get(vertx, "test-virtual");
+        Assertions.assertEquals(VirtualThreads.isSupported(), pool.isVirtual());
+
+        vertx.runOnContext(v -> pool.submit(() -> Thread.currentThread()).onComplete(ctx.succeeding(thread -> ctx.verify(() -> {
+            Assertions.assertEquals(VirtualThreads.isSupported(), VirtualThreads.isVirtual(thread));
+            Assertions.assertTrue(thread.getName().startsWith("test-virtual"), thread.getName());
+            // 回调回到提交时的event loop
+            Assertions.assertTrue(io.vertx.core.Context.isOnEventLoopThread());
+            ctx.completeNow();
+        }))));
+    }
+}
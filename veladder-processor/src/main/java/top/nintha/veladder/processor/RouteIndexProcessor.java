@@ -0,0 +1,152 @@
+package top.nintha.veladder.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 编译时生成路由索引 META-INF/veladder/routes.idx，运行时直接读取索引，不再扫描包和解析字节码获取参数名。
+ * <p>
+ * 索引为UTF-8文本，字段以制表符分隔：
+ * <pre>
+ * controller  &lt;类的二进制名称&gt;
+ * method      &lt;方法名&gt;  &lt;参数类型,...&gt;  &lt;参数名,...&gt;
+ * </pre>
+ * 参数类型与{@link Class#getName()}的格式一致，method行属于它之前最近的controller行
+ */
+@SupportedAnnotationTypes(RouteIndexProcessor.REST_CONTROLLER)
+public class RouteIndexProcessor extends AbstractProcessor {
+    static final String REST_CONTROLLER = "top.nintha.veladder.annotations.RestController";
+    static final String REQUEST_MAPPING = "top.nintha.veladder.annotations.RequestMapping";
+    static final String INDEX_RESOURCE = "META-INF/veladder/routes.idx";
+
+    /**
+     * 类的二进制名称 -> 该类的method行，跨轮次累积，在最后一轮写出
+     */
+    private final Map<String, List<String>> controllers = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    TypeElement type = (TypeElement) element;
+                    controllers.put(processingEnv.getElementUtils().getBinaryName(type).toString(), methodLines(type));
+                }
+            }
+        }
+        return false;
+    }
+
+    private List<String> methodLines(TypeElement type) {
+        List<String> lines = new ArrayList<>();
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.METHOD || !hasAnnotation(member, REQUEST_MAPPING)) {
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement) member;
+            String types = method.getParameters().stream()
+                    .map(p -> runtimeName(p.asType()))
+                    .collect(Collectors.joining(","));
+            String names = method.getParameters().stream()
+                    .map(p -> p.getSimpleName().toString())
+                    .collect(Collectors.joining(","));
+            lines.add(String.join("\t", "method", method.getSimpleName().toString(), types, names));
+        }
+        return lines;
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 擦除泛型后转换为{@link Class#getName()}的格式
+     */
+    private String runtimeName(TypeMirror type) {
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror erased = types.erasure(type);
+        if (erased.getKind().isPrimitive()) {
+            return erased.getKind().name().toLowerCase(Locale.ROOT);
+        }
+        if (erased.getKind() == TypeKind.ARRAY) {
+            return descriptor(erased);
+        }
+        return binaryName(erased);
+    }
+
+    private String descriptor(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "Z";
+            case BYTE:
+                return "B";
+            case CHAR:
+                return "C";
+            case SHORT:
+                return "S";
+            case INT:
+                return "I";
+            case LONG:
+                return "J";
+            case FLOAT:
+                return "F";
+            case DOUBLE:
+                return "D";
+            case ARRAY:
+                return "[" + descriptor(processingEnv.getTypeUtils().erasure(((ArrayType) type).getComponentType()));
+            default:
+                return "L" + binaryName(type) + ";";
+        }
+    }
+
+    private String binaryName(TypeMirror type) {
+        TypeElement element = (TypeElement) processingEnv.getTypeUtils().asElement(type);
+        return processingEnv.getElementUtils().getBinaryName(element).toString();
+    }
+
+    private void writeIndex() {
+        if (controllers.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (Writer writer = resource.openWriter()) {
+                writer.write("# veladder route index, generated by " + getClass().getName() + "\n");
+                for (Map.Entry<String, List<String>> entry : controllers.entrySet()) {
+                    writer.write("controller\t" + entry.getKey() + "\n");
+                    for (String line : entry.getValue()) {
+                        writer.write(line + "\n");
+                    }
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "failed to write " + INDEX_RESOURCE + ": " + e);
+        }
+    }
+}